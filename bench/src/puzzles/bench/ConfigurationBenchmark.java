@@ -0,0 +1,89 @@
+package puzzles.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import puzzles.common.solver.Configuration;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the Configuration methods every search leans on, for each kind of puzzle. Each call works on the next of
+ * a fixed sample of configurations reachable from the puzzle's start, so branch predictors and caches see the
+ * mix a real search does. equals compares configurations with equal copies built separately, the case a hash
+ * table lookup that hits has to confirm.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigurationBenchmark {
+    /** configurations in each sample, a power of two so the next one is picked with a mask */
+    private static final int SAMPLE = 1024;
+
+    @Param({"data/hoppers/hoppers-7.txt", "data/chess/chess-5.txt", "clock:1000 42 722", "strings:MARCH APRIL"})
+    public String puzzle;
+
+    /** configurations reachable from the start */
+    private Configuration[] states;
+    /** equal but separately built copies of states */
+    private Configuration[] copies;
+    /** index of the next configuration to use */
+    private int next;
+
+    @Setup(Level.Trial)
+    public void load() throws IOException {
+        states = Puzzles.sample(Puzzles.load(puzzle), SAMPLE);
+        copies = Puzzles.sample(Puzzles.load(puzzle), SAMPLE);
+    }
+
+    @Benchmark
+    public void getNeighbors(Blackhole blackhole) {
+        for (Configuration neighbor : states[next++ & (SAMPLE - 1)].getNeighbors()) {
+            blackhole.consume(neighbor);
+        }
+    }
+
+    @Benchmark
+    public boolean forEachNeighbor(Blackhole blackhole) {
+        return states[next++ & (SAMPLE - 1)].forEachNeighbor(neighbor -> {
+            blackhole.consume(neighbor);
+            return true;
+        });
+    }
+
+    @Benchmark
+    public int hashCodes() {
+        return states[next++ & (SAMPLE - 1)].hashCode();
+    }
+
+    @Benchmark
+    public boolean equalsCopy() {
+        int i = next++ & (SAMPLE - 1);
+        return states[i].equals(copies[i]);
+    }
+
+    @Benchmark
+    public boolean equalsOther() {
+        int i = next++ & (SAMPLE - 1);
+        return states[i].equals(states[(i + 1) & (SAMPLE - 1)]);
+    }
+
+    @Benchmark
+    public boolean isSolution() {
+        return states[next++ & (SAMPLE - 1)].isSolution();
+    }
+}
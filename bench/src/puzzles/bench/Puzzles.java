@@ -0,0 +1,88 @@
+package puzzles.bench;
+
+import puzzles.chess.model.ChessConfig;
+import puzzles.clock.ClockConfig;
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.Heuristic;
+import puzzles.hoppers.model.HoppersConfig;
+import puzzles.strings.StringsConfig;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Loads the puzzles the benchmarks run on. A puzzle is named the way it's given to its own program: a file under
+ * data/hoppers or data/chess, "clock:hours start end", or "strings:start finish".
+ */
+final class Puzzles {
+    private Puzzles() {}
+
+    /**
+     * loads a puzzle's starting configuration
+     * @param puzzle name of the puzzle
+     * @return Configuration to start from
+     * @throws IOException if a puzzle file can't be read
+     */
+    static Configuration load(String puzzle) throws IOException {
+        if (puzzle.startsWith("clock:")) {
+            String[] args = puzzle.substring(6).split(" ");
+            return new ClockConfig(Integer.parseInt(args[0]), Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+        } else if (puzzle.startsWith("strings:")) {
+            String[] args = puzzle.substring(8).split(" ");
+            return new StringsConfig(args[0], args[1]);
+        } else if (puzzle.contains("hoppers")) {
+            return new HoppersConfig(puzzle);
+        } else {
+            return new ChessConfig(puzzle);
+        }
+    }
+
+    /**
+     * gets the heuristic a puzzle's program solves it with
+     * @param puzzle name of the puzzle
+     * @return Heuristic
+     */
+    static Heuristic heuristic(String puzzle) {
+        if (puzzle.startsWith("clock:")) {
+            return ClockConfig.HEURISTIC;
+        } else if (puzzle.startsWith("strings:")) {
+            return StringsConfig.HEURISTIC;
+        } else if (puzzle.contains("hoppers")) {
+            return HoppersConfig.HEURISTIC;
+        } else {
+            return ChessConfig.HEURISTIC;
+        }
+    }
+
+    /**
+     * collects configurations reachable from a start, breadth first, so micro benchmarks see a realistic mix of
+     * boards rather than one. Puzzles with fewer reachable configurations than asked for repeat them
+     * @param start starting configuration
+     * @param count number of configurations to collect
+     * @return Configuration[] of exactly count configurations, in breadth first order
+     */
+    static Configuration[] sample(Configuration start, int count) {
+        List<Configuration> found = new ArrayList<>();
+        HashSet<Configuration> seen = new HashSet<>();
+        ArrayDeque<Configuration> queue = new ArrayDeque<>();
+        seen.add(start);
+        queue.add(start);
+        while (!queue.isEmpty() && found.size() < count) {
+            Configuration c = queue.remove();
+            found.add(c);
+            for (Configuration neighbor : c.getNeighbors()) {
+                if (seen.add(neighbor)) {
+                    queue.add(neighbor);
+                }
+            }
+        }
+        Configuration[] sample = new Configuration[count];
+        for (int i = 0; i < count; i++) {
+            sample[i] = found.get(i % found.size());
+        }
+        return sample;
+    }
+}
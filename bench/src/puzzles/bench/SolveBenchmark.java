@@ -0,0 +1,68 @@
+package puzzles.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.SearchMode;
+import puzzles.common.solver.Solver;
+
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times a whole Solver.solve on every puzzle that has a saved output: every file in data/hoppers and data/chess,
+ * and the Clock and Strings cases under output/clock and output/strings. Run from the project directory so the
+ * data files are found. The mode defaults to FRONTIER, the mode a plain Solver uses, and can be overridden with
+ * -p mode=... to compare search modes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolveBenchmark {
+    @Param({
+            "data/hoppers/hoppers-0.txt", "data/hoppers/hoppers-1.txt", "data/hoppers/hoppers-2.txt",
+            "data/hoppers/hoppers-3.txt", "data/hoppers/hoppers-4.txt", "data/hoppers/hoppers-5.txt",
+            "data/hoppers/hoppers-6.txt", "data/hoppers/hoppers-7.txt", "data/hoppers/hoppers-8.txt",
+            "data/hoppers/hoppers-9.txt",
+            "data/chess/chess-0.txt", "data/chess/chess-1.txt", "data/chess/chess-2.txt", "data/chess/chess-3.txt",
+            "data/chess/chess-4.txt", "data/chess/chess-5.txt", "data/chess/chess-6.txt", "data/chess/chess-7.txt",
+            "data/chess/chess-8.txt", "data/chess/chess-9.txt",
+            "clock:12 2 11", "clock:12 2 15", "clock:12 5 5", "clock:24 22 9", "clock:100 90 30",
+            "clock:1000 42 722",
+            "strings:AB XD", "strings:ABC ABC", "strings:ABC BZD", "strings:B !", "strings:B Y", "strings:CAT DOG",
+            "strings:MARCH APRIL", "strings:P U"
+    })
+    public String puzzle;
+
+    @Param({"FRONTIER"})
+    public String mode;
+
+    /** starting configuration of the puzzle */
+    private Configuration start;
+
+    @Setup(Level.Trial)
+    public void load() throws IOException {
+        start = Puzzles.load(puzzle);
+    }
+
+    @Benchmark
+    public LinkedList<Configuration> solve() {
+        Solver solver = new Solver(SearchMode.valueOf(mode));
+        solver.setHeuristic(Puzzles.heuristic(puzzle));
+        return solver.solve(start);
+    }
+}
@@ -0,0 +1,234 @@
+package puzzles.batch;
+
+import puzzles.chess.solver.Chess;
+import puzzles.common.solver.SearchMode;
+import puzzles.common.solver.SolutionStore;
+import puzzles.common.solver.Solver;
+import puzzles.hoppers.solver.Hoppers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * Solves whole directories of Hoppers and Chess puzzles at once, on a fixed number of threads, and writes each
+ * solution to its own output file in the same format the Hoppers and Chess programs print. Whether a file is a
+ * Hoppers or a Chess puzzle comes from its name or the name of a directory it's in. The puzzles with the most
+ * pieces are started first, so a big one isn't left running alone at the end. Solutions go to a puzzles-batch
+ * directory in the system's temporary directory unless -o names another, so the expected outputs checked in under
+ * output are never overwritten by accident.
+ */
+public class Batch {
+    /**
+     * A puzzle file waiting to be solved
+     * @param file puzzle file
+     * @param kind "hoppers" or "chess"
+     * @param pieces number of frogs or chess pieces on the starting board, a guess at how long it will take
+     */
+    private record Job(Path file, String kind, int pieces) {}
+
+    /**
+     * A puzzle that was solved
+     * @param job the puzzle
+     * @param output file its solution was written to
+     * @param entry the solution and its search counts, null if it couldn't be solved
+     * @param error why it couldn't be solved, null if it was
+     * @param nanos how long it took
+     */
+    private record Result(Job job, Path output, SolutionStore.Entry entry, Exception error, long nanos) {}
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path outDir = Path.of(System.getProperty("java.io.tmpdir"), "puzzles-batch");
+        SearchMode mode = null;
+        List<String> inputs = new ArrayList<>();
+        for (int i=0; i<args.length; i++) {
+            if (args[i].equals("-j") && i+1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-o") && i+1 < args.length) {
+                outDir = Path.of(args[++i]);
+            } else if (args[i].equals("-m") && i+1 < args.length) {
+                mode = SearchMode.valueOf(args[++i].toUpperCase());
+            } else {
+                inputs.add(args[i]);
+            }
+        }
+        if (inputs.isEmpty() || threads < 1) {
+            System.out.println("Usage: java Batch [-j threads] [-o outdir] [-m mode] directory|file|glob...");
+            return;
+        }
+        List<Job> jobs = new ArrayList<>();
+        for (String input : inputs) {
+            try {
+                for (Path file : expand(input)) {
+                    String kind = kind(file);
+                    if (kind == null) {
+                        System.out.println("Skipping " + file + ": not a Hoppers or Chess puzzle");
+                    } else {
+                        jobs.add(new Job(file, kind, pieces(file)));
+                    }
+                }
+            } catch (IOException e) {
+                System.out.println("Skipping " + input + ": " + e.getMessage());
+            }
+        }
+        jobs.sort(Comparator.comparingInt(Job::pieces).reversed().thenComparing(Job::file));
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CompletionService<Result> done = new ExecutorCompletionService<>(pool);
+        long start = System.nanoTime();
+        for (Job job : jobs) {
+            Path output = outDir.resolve(job.kind())
+                    .resolve(job.file().getFileName().toString().replaceFirst("\\.txt$", "") + "-out.txt");
+            SearchMode jobMode = mode;
+            done.submit(() -> solve(job, output, jobMode));
+        }
+        int solved = 0;
+        int searched = 0;
+        long states = 0;
+        for (int i=0; i<jobs.size(); i++) {
+            Result result;
+            try {
+                result = done.take().get();
+            } catch (ExecutionException e) {
+                System.out.println("Solving failed: " + e.getCause());
+                continue;
+            }
+            if (result.error() != null) {
+                System.out.println(result.job().file() + ": could not solve, " + result.error().getMessage());
+                continue;
+            }
+            solved++;
+            if (!result.entry().cached()) {
+                searched++;
+                states += result.entry().numConfigs();
+            }
+            int moves = result.entry().path().size() - 1;
+            System.out.printf("%s -> %s: %s, %d configs%s, %d ms%n", result.job().file(), result.output(),
+                    moves < 0 ? "No Solution" : moves + " moves", result.entry().numConfigs(),
+                    result.entry().cached() ? " (cached)" : "", result.nanos() / 1_000_000);
+        }
+        pool.shutdown();
+        double seconds = Math.max(System.nanoTime() - start, 1) / 1e9;
+        System.out.printf("Solved %d of %d puzzles (%d searched, %d cached) in %.2f s on %d threads: "
+                        + "%.1f puzzles/sec, %.0f states/sec searched%n", solved, jobs.size(), searched,
+                solved - searched, seconds, threads, solved / seconds, states / seconds);
+    }
+
+    /**
+     * solves one puzzle, writing its solution to its output file once it's done, so a puzzle that can't be solved
+     * leaves no output behind
+     * @param job puzzle to solve
+     * @param output file to write the solution to
+     * @param mode search mode to solve with, null for the Solver's default like the Hoppers and Chess programs
+     * @return Result
+     */
+    private static Result solve(Job job, Path output, SearchMode mode) {
+        long start = System.nanoTime();
+        try {
+            ByteArrayOutputStream text = new ByteArrayOutputStream();
+            PrintStream out = new PrintStream(text);
+            Solver solver = mode == null ? new Solver() : new Solver(mode);
+            SolutionStore.Entry entry = job.kind().equals("hoppers")
+                    ? Hoppers.solve(job.file().toString(), solver, out)
+                    : Chess.solve(job.file().toString(), solver, out);
+            out.flush();
+            Files.createDirectories(output.getParent());
+            Files.write(output, text.toByteArray());
+            return new Result(job, output, entry, null, System.nanoTime() - start);
+        } catch (IOException | RuntimeException e) {
+            return new Result(job, output, null, e, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * finds the puzzle files an argument names: every .txt file directly in a directory, a single file, or every
+     * file matching a glob pattern like data/hoppers/hoppers-*.txt
+     * @param input directory, file or glob pattern
+     * @return List of files, in name order
+     * @throws IOException if a directory can't be read
+     */
+    private static List<Path> expand(String input) throws IOException {
+        int glob = indexOfGlob(input);
+        if (glob == -1) {
+            Path path = Path.of(input);
+            if (!Files.isDirectory(path)) {
+                return List.of(path);
+            }
+            try (Stream<Path> files = Files.list(path)) {
+                return files.filter(f -> Files.isRegularFile(f) && f.toString().endsWith(".txt")).sorted().toList();
+            }
+        }
+        int slash = input.lastIndexOf('/', glob);
+        Path base = Path.of(slash == -1 ? "." : input.substring(0, slash + 1));
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + input);
+        try (Stream<Path> files = Files.walk(base)) {
+            return files.filter(f -> Files.isRegularFile(f)
+                    && matcher.matches(slash == -1 ? base.relativize(f) : f)).sorted().toList();
+        }
+    }
+
+    /**
+     * finds the first glob special character in an argument
+     * @param input argument
+     * @return index of the first *, ?, [ or {, -1 if there isn't one
+     */
+    private static int indexOfGlob(String input) {
+        for (int i=0; i<input.length(); i++) {
+            if ("*?[{".indexOf(input.charAt(i)) != -1) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * works out which puzzle a file holds from its name, or failing that the directories it's in
+     * @param file puzzle file
+     * @return "hoppers" or "chess", null if no name says which
+     */
+    private static String kind(Path file) {
+        for (int i=file.getNameCount()-1; i>=0; i--) {
+            String name = file.getName(i).toString().toLowerCase();
+            if (name.startsWith("hoppers")) {
+                return "hoppers";
+            } else if (name.startsWith("chess")) {
+                return "chess";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * counts the frogs or chess pieces on a starting board, everything on the rows after the first line that
+     * isn't an empty ('.') or unplayable ('*') cell
+     * @param file puzzle file
+     * @return int number of pieces
+     * @throws IOException if the file can't be read
+     */
+    private static int pieces(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file);
+        int pieces = 0;
+        for (String line : lines.subList(Math.min(1, lines.size()), lines.size())) {
+            for (char c : line.toCharArray()) {
+                if (c != '.' && c != '*' && !Character.isWhitespace(c)) {
+                    pieces++;
+                }
+            }
+        }
+        return pieces;
+    }
+}
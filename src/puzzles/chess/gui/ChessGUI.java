@@ -1,10 +1,12 @@
 package puzzles.chess.gui;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.*;
@@ -14,10 +16,12 @@ import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import puzzles.common.Observer;
 import puzzles.chess.model.ChessModel;
+import puzzles.common.solver.SolverMetrics;
 
 import java.io.File;
 import java.nio.file.Paths;
 import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Class runs a Chess GUI making use of ChessModel and ChessConfig
@@ -61,6 +65,12 @@ public class ChessGUI extends Application implements Observer<ChessModel, String
     private boolean initialized;
     /**label with status message from model */
     private Label status;
+    /** the progress of the hint being worked out, with its cancel button */
+    private HBox progress;
+    /** label with the hint's states searched, depth and rate */
+    private Label progressText;
+    /** the latest progress of the hint, waiting for the UI thread to show it, null if there isn't any */
+    private final AtomicReference<SolverMetrics> latestProgress = new AtomicReference<>();
     /** hashmap holding string of coordinates and the button at that cell*/
     private HashMap<String, Button> pieces;
     /** first file program is run with */
@@ -94,6 +104,7 @@ public class ChessGUI extends Application implements Observer<ChessModel, String
         this.model = new ChessModel(filename);
         this.initialized = false;
         model.addObserver(this);
+        model.addProgressObserver((chessModel, metrics) -> progress(metrics));
         first = filename;
         this.board = new GridPane();
         this.pieces = new HashMap<>();
@@ -179,6 +190,20 @@ public class ChessGUI extends Application implements Observer<ChessModel, String
         bottom.getChildren().addAll(load, reset, hint);
         bottom.setAlignment(Pos.BOTTOM_CENTER);
 
+        // Make hint progress, shown while a hint is being worked out
+        ProgressIndicator spinner = new ProgressIndicator();
+        spinner.setPrefSize(FONT_SIZE * 2, FONT_SIZE * 2);
+        progressText = new Label();
+        progressText.setFont(new Font(FONT_SIZE));
+        Button cancel = new Button("Cancel");
+        cancel.setFont(new Font(FONT_SIZE));
+        cancel.setOnAction(e -> model.stopHint());
+        progress = new HBox(spinner, progressText, cancel);
+        progress.setAlignment(Pos.CENTER);
+        progress.setSpacing(FONT_SIZE / 2.0);
+        hideProgress();
+        bottom.getChildren().add(progress);
+
         buildBoard();
 
         borderPane.setTop(top);
@@ -202,12 +227,51 @@ public class ChessGUI extends Application implements Observer<ChessModel, String
     @Override
     public void update(ChessModel chessModel, String msg) {
         if(!this.initialized) return;
+        if (!Platform.isFxApplicationThread()) {   // hints arrive from the model's background thread
+            Platform.runLater(() -> update(chessModel, msg));
+            return;
+        }
 
+        hideProgress();   // any message means the hint, if there was one, is over
         status.setText(msg);
         buildBoard();
         this.stage.sizeToScene();  // when a different sized puzzle is loaded
     }
 
+    /**
+     * keeps the latest progress of a hint and asks the UI thread to show it, unless it's already been asked and
+     * hasn't got to it yet, so however often the model reports, the UI thread only has one update queued
+     * @param metrics the hint's search so far
+     */
+    private void progress(SolverMetrics metrics) {
+        if (latestProgress.getAndSet(metrics) == null) {
+            Platform.runLater(this::showProgress);
+        }
+    }
+
+    /**
+     * shows the latest progress of the hint, if it hasn't finished since
+     */
+    private void showProgress() {
+        SolverMetrics metrics = latestProgress.getAndSet(null);
+        if (!initialized || metrics == null) {
+            return;
+        }
+        progressText.setText(String.format("%,d states, depth %d, %,.0f states/s", metrics.numConfigs(),
+                metrics.level(), metrics.statesPerSecond()));
+        progress.setVisible(true);
+        progress.setManaged(true);
+    }
+
+    /**
+     * hides the hint's progress, once the hint has finished one way or another
+     */
+    private void hideProgress() {
+        latestProgress.set(null);
+        progress.setVisible(false);
+        progress.setManaged(false);
+    }
+
     /**
      * launches the program with given file
      * @param args file been given
@@ -0,0 +1,104 @@
+package puzzles.chess.model;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Everything about a chess puzzle that is the same for every board reached while solving it: its size, the
+ * squares its pieces start on, and the attack tables and Zobrist keys built for that size. Every ChessConfig of
+ * the puzzle shares one ChessBoard, so puzzles loaded at the same time don't interfere with each other.
+ */
+final class ChessBoard {
+    /** most squares a board can have, two longs of bits per mask */
+    static final int MAX_SQUARES = 128;
+    /** number of kinds of piece, 3 bit codes 1 up to 6 */
+    private static final int PIECES = 6;
+    /** squares a pawn can capture on, up right then up left */
+    private static final int[][] PAWN_STEPS = {{-1, 1}, {-1, -1}};
+    /** squares a king can capture on: up, down, right, up right, down right, left, up left, down left */
+    private static final int[][] KING_STEPS = {{-1, 0}, {1, 0}, {0, 1}, {-1, 1}, {1, 1}, {0, -1}, {-1, -1}, {1, -1}};
+    /** squares a knight can capture on: 2 down, 2 up, 2 left, then 2 right */
+    private static final int[][] KNIGHT_STEPS = {{2, -1}, {2, 1}, {-2, -1}, {-2, 1}, {-1, -2}, {1, -2}, {-1, 2}, {1, 2}};
+    /** single step pieces, in the order of their step tables: pawn, king, knight */
+    private static final int[][][] STEPS = {PAWN_STEPS, KING_STEPS, KNIGHT_STEPS};
+    /**
+     * directions pieces slide in: the bishop rays down right, down left, up right, up left, then the rook rays
+     * down, up, right, left
+     */
+    private static final int[][] RAYS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}, {1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    /** seed for the Zobrist keys, fixed so hash codes are the same on every run */
+    private static final long ZOBRIST_SEED = 0x5DEECE66DL;
+
+    /** number of rows on the board */
+    final int rows;
+    /** number of columns on the board */
+    final int cols;
+    /**
+     * squares occupied on the starting board, in row major order. Every capture lands on an occupied square, so
+     * no reachable board has a piece anywhere else
+     */
+    final int[] startSquares;
+    /** random key for every piece on every square, indexed by square * 8 + 3 bit code; empty squares are 0 */
+    final long[] zobristKeys;
+    /** squares each single step piece captures on from each square, in step order, indexed by [piece][square] */
+    final int[][][] stepTargets;
+    /** the same squares as stepTargets as a mask, indexed by [piece][square * 2 + word] */
+    final long[][] stepMasks;
+    /** every square along each ray from each square, indexed by [ray][square * 2 + word] */
+    final long[][] rayMasks;
+    /** whether squares increase along each ray, so the nearest one on it is the lowest bit rather than the highest */
+    final boolean[] rayAscending;
+
+    /**
+     * Builds the tables for a board
+     *
+     * @param rows number of rows on the board
+     * @param cols number of columns on the board
+     * @param startSquares squares occupied on the starting board, in row major order
+     */
+    ChessBoard(int rows, int cols, int[] startSquares) {
+        this.rows = rows;
+        this.cols = cols;
+        this.startSquares = startSquares;
+        int squares = rows * cols;
+        zobristKeys = new long[squares * 8];
+        SplittableRandom random = new SplittableRandom(ZOBRIST_SEED);
+        for (int square = 0; square < squares; square++) {
+            for (int code = 1; code <= PIECES; code++) {
+                zobristKeys[square * 8 + code] = random.nextLong();
+            }
+        }
+        stepTargets = new int[STEPS.length][squares][];
+        stepMasks = new long[STEPS.length][squares * 2];
+        rayMasks = new long[RAYS.length][squares * 2];
+        rayAscending = new boolean[RAYS.length];
+        for (int ray = 0; ray < RAYS.length; ray++) {
+            rayAscending[ray] = RAYS[ray][0] > 0 || RAYS[ray][0] == 0 && RAYS[ray][1] > 0;
+        }
+        for (int square = 0; square < squares; square++) {
+            int r0 = square / cols;
+            int c0 = square % cols;
+            for (int piece = 0; piece < STEPS.length; piece++) {
+                int[] targets = new int[STEPS[piece].length];
+                int count = 0;
+                for (int[] step : STEPS[piece]) {
+                    int r = r0 + step[0];
+                    int c = c0 + step[1];
+                    if (r >= 0 && r < rows && c >= 0 && c < cols) {
+                        int target = r * cols + c;
+                        targets[count++] = target;
+                        stepMasks[piece][square * 2 + (target >>> 6)] |= 1L << target;
+                    }
+                }
+                stepTargets[piece][square] = Arrays.copyOf(targets, count);
+            }
+            for (int ray = 0; ray < RAYS.length; ray++) {
+                for (int r = r0 + RAYS[ray][0], c = c0 + RAYS[ray][1];
+                     r >= 0 && r < rows && c >= 0 && c < cols; r += RAYS[ray][0], c += RAYS[ray][1]) {
+                    int target = r * cols + c;
+                    rayMasks[ray][square * 2 + (target >>> 6)] |= 1L << target;
+                }
+            }
+        }
+    }
+}
@@ -1,11 +1,17 @@
 package puzzles.chess.model;
 
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.Encodable;
+import puzzles.common.solver.Heuristic;
+import puzzles.common.solver.NeighborVisitor;
+import puzzles.common.solver.Replayable;
+import puzzles.common.solver.Symmetric;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 
 /**
@@ -14,34 +20,56 @@ import java.util.Collection;
  *
  * @author Madeline Mariano mam5090
  */
-public class ChessConfig implements Configuration {
-    /** number of rows on the board */
-    protected static int row;
-    /** number of columns on the board */
-    protected static int col;
-    /** 2D array grid representing the chess board game */
-    private final char[][] game;
+public class ChessConfig implements Encodable, Replayable, Symmetric {
+    /** every capture removes a piece, so it takes at least (pieces - 1) captures to leave one piece */
+    public static final Heuristic HEURISTIC = config -> ((ChessConfig) config).getPieces() - 1;
+    /** originally occupied squares packed into each long of an encoding, 3 bits per square */
+    private static final int SQUARES_PER_WORD = 21;
+    /** what a square can hold, indexed by its 3 bit code */
+    private static final String SQUARES = ".PKNBRQ";
+    /** the puzzle this board belongs to, shared by every board reached from the same starting board */
+    private final ChessBoard board;
+    /**
+     * one 128 bit mask (two longs, low word first) per 3 bit code: words 0 and 1 are every occupied square, then
+     * words code * 2 and code * 2 + 1 are the squares holding that piece. Square r * columns + c is bit
+     * (square % 64) of word (square / 64)
+     */
+    private final long[] bits;
+    /** Zobrist hash of the board, the xor of the keys of every piece on it */
+    private final long zobrist;
 
 
     /**
      * Creates a new ChessConfig board based off of given file
      *
      * @param filename file being iterated over to create new board
-     * @throws IOException if file is not found
+     * @throws IOException if file is not found, or the board has more than 128 squares
      */
     public ChessConfig(String filename) throws IOException {
         try (BufferedReader in = new BufferedReader((new FileReader(filename)))) {
             String[] fields = in.readLine().split("\\s+");
-            row = Integer.parseInt(fields[0]);
-            col = Integer.parseInt(fields[1]);
-            this.game = new char[row][col];
-            for (int r = 0; r < row; r++) {
+            int rows = Integer.parseInt(fields[0]);
+            int cols = Integer.parseInt(fields[1]);
+            if (rows * cols > ChessBoard.MAX_SQUARES) {
+                throw new IOException("Chess boards can have at most " + ChessBoard.MAX_SQUARES + " squares");
+            }
+            this.bits = new long[SQUARES.length() * 2];
+            for (int r = 0; r < rows; r++) {
                 fields = in.readLine().split("\\s+");
-                for (int c = 0; c < col; c++) {
-                    game[r][c] = fields[c].charAt(0);
+                for (int c = 0; c < cols; c++) {
+                    place(bits, r * cols + c, SQUARES.indexOf(fields[c].charAt(0)));
+                }
+            }
+            int[] startSquares = new int[getPieces()];
+            int count = 0;
+            for (int word = 0; word < 2; word++) {
+                for (long occupied = bits[word]; occupied != 0; occupied &= occupied - 1) {
+                    startSquares[count++] = word * 64 + Long.numberOfTrailingZeros(occupied);
                 }
             }
+            this.board = new ChessBoard(rows, cols, startSquares);
         }
+        this.zobrist = zobrist(board, bits);
     }
 
     /**
@@ -50,54 +78,207 @@ public class ChessConfig implements Configuration {
      * @param other ChessConfig to be copied
      */
     public ChessConfig(ChessConfig other) {
-        this.game = new char[row][col];
-        for (int r = 0; r < row; r++) {
-            if (col >= 0) System.arraycopy(other.game[r], 0, game[r], 0, col);
+        this.board = other.board;
+        this.bits = other.bits.clone();
+        this.zobrist = other.zobrist;
+    }
+
+    /**
+     * Creates a ChessConfig around already filled in masks
+     *
+     * @param board the puzzle the board belongs to
+     * @param bits masks to use, laid out like the bits field
+     * @param zobrist Zobrist hash of the masks
+     */
+    private ChessConfig(ChessBoard board, long[] bits, long zobrist) {
+        this.board = board;
+        this.bits = bits;
+        this.zobrist = zobrist;
+    }
+
+    /**
+     * Creates a ChessConfig around already filled in masks, hashing them from scratch
+     *
+     * @param board the puzzle the board belongs to
+     * @param bits masks to use, laid out like the bits field
+     */
+    private ChessConfig(ChessBoard board, long[] bits) {
+        this(board, bits, zobrist(board, bits));
+    }
+
+    /**
+     * Puts a piece on an empty square
+     *
+     * @param bits masks to change
+     * @param square square to put the piece on (row * columns + col)
+     * @param code 3 bit code of the piece, 0 leaves the square empty
+     */
+    private static void place(long[] bits, int square, int code) {
+        if (code > 0) {
+            bits[square >>> 6] |= 1L << square;
+            bits[code * 2 + (square >>> 6)] |= 1L << square;
         }
     }
 
     /**
-     * Helper function for pawn movements
+     * Hashes a whole board from scratch
      *
-     * @param row current row where pawn is located
-     * @param col current col where pawn is located
-     * @return Collection of ChessConfigs of all possible valid pawn moves
+     * @param board the puzzle the board belongs to
+     * @param bits masks of the board to hash
+     * @return long Zobrist hash
      */
-    public Collection<ChessConfig> pawnMoves(int row, int col) {
-        ArrayList<ChessConfig> result = new ArrayList<>();
-        ChessConfig newC = new ChessConfig(this);
-        if (row == 0) {
-            return result;
+    private static long zobrist(ChessBoard board, long[] bits) {
+        long hash = 0;
+        for (int square = 0; square < board.rows * board.cols; square++) {
+            hash ^= board.zobristKeys[square * 8 + code(bits, square)];
         }
+        return hash;
+    }
 
-        if (col == 0) {
-            if (game[row - 1][col + 1] != '.') {
-                newC.game[row - 1][col + 1] = 'P';
-                newC.game[row][col] = '.';
-                result.add(newC);
-            }
-        } else if (col == ChessConfig.col - 1) {
-            if (game[row - 1][col - 1] != '.') {
-                newC.game[row - 1][col - 1] = 'P';
-                newC.game[row][col] = '.';
-                result.add(newC);
+    /**
+     * Gets the piece on a square
+     *
+     * @param bits masks of the board
+     * @param square square to look at (row * columns + col)
+     * @return 3 bit code of the piece, 0 if the square is empty
+     */
+    private static int code(long[] bits, int square) {
+        int word = square >>> 6;
+        if ((bits[word] >>> square & 1L) != 0) {
+            for (int code = 1; code < SQUARES.length(); code++) {
+                if ((bits[code * 2 + word] >>> square & 1L) != 0) {
+                    return code;
+                }
             }
-        } else {
-            if (game[row - 1][col + 1] != '.') {
-                newC.game[row - 1][col + 1] = 'P';
-                newC.game[row][col] = '.';
-                result.add(newC);
+        }
+        return 0;
+    }
+
+    /**
+     * Makes a capture on a copy of this board, updating the masks and the Zobrist hash for just the two squares
+     * that changed
+     *
+     * @param from square of the capturing piece (row * columns + col)
+     * @param to square of the captured piece
+     * @param placed 3 bit code of the piece left on the captured square
+     * @return ChessConfig after the capture
+     */
+    private ChessConfig capture(int from, int to, int placed) {
+        long[] next = bits.clone();
+        int moving = code(bits, from);
+        int captured = code(bits, to);
+        next[from >>> 6] &= ~(1L << from);
+        next[moving * 2 + (from >>> 6)] &= ~(1L << from);
+        next[captured * 2 + (to >>> 6)] &= ~(1L << to);
+        next[placed * 2 + (to >>> 6)] |= 1L << to;
+        long[] keys = board.zobristKeys;
+        return new ChessConfig(board, next,
+                zobrist ^ keys[from * 8 + moving] ^ keys[to * 8 + captured] ^ keys[to * 8 + placed]);
+    }
+
+    /**
+     * Finds the squares a piece can capture on by taking single steps, like a pawn, king or knight. Squares the
+     * piece can't reach anything from are skipped with a single mask test
+     *
+     * @param square current square of the piece (row * columns + col)
+     * @param piece index of the piece in ChessBoard's step tables: pawn, king, knight
+     * @param targets array to write the captured squares into
+     * @return the number of squares in targets
+     */
+    private int stepTargets(int square, int piece, int[] targets) {
+        long[] stepMasks = board.stepMasks[piece];
+        if ((stepMasks[square * 2] & bits[0] | stepMasks[square * 2 + 1] & bits[1]) == 0) {
+            return 0;
+        }
+        int count = 0;
+        for (int target : board.stepTargets[piece][square]) {
+            if ((bits[target >>> 6] >>> target & 1L) != 0) {
+                targets[count++] = target;
             }
-            ChessConfig newCh = new ChessConfig(this);
-            if (game[row - 1][col - 1] != '.') {
-                newCh.game[row - 1][col - 1] = 'P';
-                newC.game[row][col] = '.';
-                result.add(newCh);
+        }
+        return count;
+    }
+
+    /**
+     * Finds the squares a piece can capture on by sliding, like a bishop, rook or queen: the first occupied
+     * square along each ray. Squares only ever increase or only ever decrease along a ray, so that is the lowest
+     * or highest occupied bit of the ray's mask
+     *
+     * @param square current square of the piece (row * columns + col)
+     * @param first index of the first of ChessBoard's rays to slide along
+     * @param last index after the last ray to slide along
+     * @param targets array to write the captured squares into
+     * @param count number of squares already in targets
+     * @return the new number of squares in targets
+     */
+    private int rayTargets(int square, int first, int last, int[] targets, int count) {
+        for (int ray = first; ray < last; ray++) {
+            long low = board.rayMasks[ray][square * 2] & bits[0];
+            long high = board.rayMasks[ray][square * 2 + 1] & bits[1];
+            if ((low | high) == 0) {
+                continue;
+            }
+            if (board.rayAscending[ray]) {
+                targets[count++] = low != 0 ? Long.numberOfTrailingZeros(low) : 64 + Long.numberOfTrailingZeros(high);
+            } else {
+                targets[count++] = high != 0 ? 127 - Long.numberOfLeadingZeros(high)
+                        : 63 - Long.numberOfLeadingZeros(low);
             }
         }
+        return count;
+    }
+
+    /**
+     * Finds every square the given piece can capture on
+     *
+     * @param square current square of the piece (row * columns + col)
+     * @param code 3 bit code of the piece
+     * @param targets array of at least 8 squares to write the captured squares into
+     * @return number of squares written to targets
+     */
+    private int targets(int square, int code, int[] targets) {
+        return switch (SQUARES.charAt(code)) {
+            case 'P' -> stepTargets(square, 0, targets);
+            case 'K' -> stepTargets(square, 1, targets);
+            case 'N' -> stepTargets(square, 2, targets);
+            case 'B' -> rayTargets(square, 0, 4, targets, 0);
+            case 'R' -> rayTargets(square, 4, 8, targets, 0);
+            case 'Q' -> rayTargets(square, 0, 8, targets, 0);
+            default -> 0;
+        };
+    }
+
+    /**
+     * Makes every capture a piece can make
+     *
+     * @param row current row of the piece
+     * @param col current col of the piece
+     * @param piece character representation of the piece moving
+     * @param placed character representation of the piece left on the captured square
+     * @return Collection of ChessConfigs of all possible valid moves
+     */
+    private Collection<ChessConfig> moves(int row, int col, char piece, char placed) {
+        int square = row * board.cols + col;
+        int[] targets = new int[8];
+        int count = targets(square, SQUARES.indexOf(piece), targets);
+        ArrayList<ChessConfig> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(capture(square, targets[i], SQUARES.indexOf(placed)));
+        }
         return result;
     }
 
+    /**
+     * Helper function for pawn movements
+     *
+     * @param row current row where pawn is located
+     * @param col current col where pawn is located
+     * @return Collection of ChessConfigs of all possible valid pawn moves
+     */
+    public Collection<ChessConfig> pawnMoves(int row, int col) {
+        return moves(row, col, 'P', 'P');
+    }
+
     /**
      * Helper function for king movements
      *
@@ -106,134 +287,7 @@ public class ChessConfig implements Configuration {
      * @return Collection of ChessConfigs of all possible valid king moves
      */
     public Collection<ChessConfig> kingMoves(int row, int col) {
-        ArrayList<ChessConfig> result = new ArrayList<>();
-        if (row == 0) {
-            if (game[row + 1][col] != '.') { // down one
-                ChessConfig newCh = new ChessConfig(this);
-                newCh.game[row + 1][col] = 'K';
-                newCh.game[row][col] = '.';
-                result.add(newCh);
-            }
-            if (col != ChessConfig.col - 1) {
-                if (game[row][col + 1] != '.') { //to the right one
-                    ChessConfig newC = new ChessConfig(this);
-                    newC.game[row][col + 1] = 'K';
-                    newC.game[row][col] = '.';
-                    result.add(newC);
-                }
-                if (game[row + 1][col + 1] != '.') { // diag down right
-                    ChessConfig newCh = new ChessConfig(this);
-                    newCh.game[row + 1][col + 1] = 'K';
-                    newCh.game[row][col] = '.';
-                    result.add(newCh);
-                }
-            }
-            if (col != 0) {
-                if (game[row][col - 1] != '.') { // left one
-                    ChessConfig newCh = new ChessConfig(this);
-                    newCh.game[row][col - 1] = 'K';
-                    newCh.game[row][col] = '.';
-                    result.add(newCh);
-                }
-                if (game[row + 1][col - 1] != '.') { // diag down left
-                    ChessConfig newCh = new ChessConfig(this);
-                    newCh.game[row + 1][col - 1] = 'K';
-                    newCh.game[row][col] = '.';
-                    result.add(newCh);
-                }
-            }
-        } else if (row == ChessConfig.row - 1) {
-            if (game[row - 1][col] != '.') { //up one
-                ChessConfig newCh = new ChessConfig(this);
-                newCh.game[row - 1][col] = 'K';
-                newCh.game[row][col] = '.';
-                result.add(newCh);
-            }
-            if (col != ChessConfig.col - 1) {
-                if (game[row][col + 1] != '.') { //to the right one
-                    ChessConfig newC = new ChessConfig(this);
-                    newC.game[row][col + 1] = 'K';
-                    newC.game[row][col] = '.';
-                    result.add(newC);
-                }
-                if (game[row - 1][col + 1] != '.') { // diag up right
-                    ChessConfig newCh = new ChessConfig(this);
-                    newCh.game[row - 1][col + 1] = 'K';
-                    newCh.game[row][col] = '.';
-                    result.add(newCh);
-                }
-            }
-            if (col != 0) {
-                if (game[row][col - 1] != '.') { // left one
-                    ChessConfig newCh = new ChessConfig(this);
-                    newCh.game[row][col - 1] = 'K';
-                    newCh.game[row][col] = '.';
-                    result.add(newCh);
-                }
-                if (game[row - 1][col - 1] != '.') { // diag up left
-                    ChessConfig newCh = new ChessConfig(this);
-                    newCh.game[row - 1][col - 1] = 'K';
-                    newCh.game[row][col] = '.';
-                    result.add(newCh);
-                }
-
-            }
-        } else {
-            if (game[row - 1][col] != '.') { //up one
-                ChessConfig newCh = new ChessConfig(this);
-                newCh.game[row - 1][col] = 'K';
-                newCh.game[row][col] = '.';
-                result.add(newCh);
-            }
-
-            if (game[row + 1][col] != '.') { // down one
-                ChessConfig newCh = new ChessConfig(this);
-                newCh.game[row + 1][col] = 'K';
-                newCh.game[row][col] = '.';
-                result.add(newCh);
-            }
-            if (col != ChessConfig.col - 1) {
-                if (game[row][col + 1] != '.') { //to the right one
-                    ChessConfig newC = new ChessConfig(this);
-                    newC.game[row][col + 1] = 'K';
-                    newC.game[row][col] = '.';
-                    result.add(newC);
-                }
-                if (game[row - 1][col + 1] != '.') { // diag up right
-                    ChessConfig newCh = new ChessConfig(this);
-                    newCh.game[row - 1][col + 1] = 'K';
-                    newCh.game[row][col] = '.';
-                    result.add(newCh);
-                }
-                if (game[row + 1][col + 1] != '.') { // diag down right
-                    ChessConfig newCh = new ChessConfig(this);
-                    newCh.game[row + 1][col + 1] = 'K';
-                    newCh.game[row][col] = '.';
-                    result.add(newCh);
-                }
-            }
-            if (col != 0) {
-                if (game[row][col - 1] != '.') { // left one
-                    ChessConfig newCh = new ChessConfig(this);
-                    newCh.game[row][col - 1] = 'K';
-                    newCh.game[row][col] = '.';
-                    result.add(newCh);
-                }
-                if (game[row - 1][col - 1] != '.') { // diag up left
-                    ChessConfig newCh = new ChessConfig(this);
-                    newCh.game[row - 1][col - 1] = 'K';
-                    newCh.game[row][col] = '.';
-                    result.add(newCh);
-                }
-                if (game[row + 1][col - 1] != '.') { // diag down left
-                    ChessConfig newCh = new ChessConfig(this);
-                    newCh.game[row + 1][col - 1] = 'K';
-                    newCh.game[row][col] = '.';
-                    result.add(newCh);
-                }
-            }
-        }
-        return result;
+        return moves(row, col, 'K', 'K');
     }
 
     /**
@@ -245,82 +299,7 @@ public class ChessConfig implements Configuration {
      * @return Collection of ChessConfigs of all possible valid bishop moves
      */
     public Collection<ChessConfig> bishopMoves(int row, int col, boolean queen) {
-        ArrayList<ChessConfig> result = new ArrayList<>();
-        if (row != ChessConfig.row - 1) {
-            int r = row + 1;
-            int c = col + 1;
-            if (c < ChessConfig.col) {
-                while (r + 1 < ChessConfig.row && c + 1 < ChessConfig.col && game[r][c] == '.') { //diag down right
-                    r++;
-                    c++;
-                }
-                if (game[r][c] != '.') {
-                    ChessConfig newC = new ChessConfig(this);
-                    newC.game[r][c] = 'B';
-                    newC.game[row][col] = '.';
-                    if (queen) {
-                        newC.game[r][c] = 'Q';
-                    }
-                    result.add(newC);
-                }
-            }
-
-            r = row + 1;
-            c = col - 1;
-            if (c >= 0) {
-                while (r + 1 < ChessConfig.row && c - 1 >= 0 && game[r][c] == '.') { //diag down left
-                    r++;
-                    c--;
-                }
-                if (game[r][c] != '.') {
-                    ChessConfig newC = new ChessConfig(this);
-                    newC.game[r][c] = 'B';
-                    newC.game[row][col] = '.';
-                    if (queen) {
-                        newC.game[r][c] = 'Q';
-                    }
-                    result.add(newC);
-                }
-            }
-        }
-        if (row != 0) {
-            int r = row - 1;
-            int c = col + 1;
-            if (c < ChessConfig.col) {
-                while (r - 1 >= 0 && c + 1 < ChessConfig.col && game[r][c] == '.') { //diag up right
-                    r--;
-                    c++;
-                }
-                if (game[r][c] != '.') {
-                    ChessConfig newC = new ChessConfig(this);
-                    newC.game[r][c] = 'B';
-                    newC.game[row][col] = '.';
-                    if (queen) {
-                        newC.game[r][c] = 'Q';
-                    }
-                    result.add(newC);
-                }
-            }
-
-            r = row - 1;
-            c = col - 1;
-            if (c >= 0) {
-                while (r - 1 >= 0 && c - 1 >= 0 && game[r][c] == '.') { //diag up left
-                    r--;
-                    c--;
-                }
-                if (game[r][c] != '.') {
-                    ChessConfig newC = new ChessConfig(this);
-                    newC.game[r][c] = 'B';
-                    newC.game[row][col] = '.';
-                    if (queen) {
-                        newC.game[r][c] = 'Q';
-                    }
-                    result.add(newC);
-                }
-            }
-        }
-        return result;
+        return moves(row, col, 'B', queen ? 'Q' : 'B');
     }
 
     /**
@@ -332,71 +311,7 @@ public class ChessConfig implements Configuration {
      * @return Collection of ChessConfigs of all possible valid rook moves
      */
     public Collection<ChessConfig> rookMoves(int row, int col, boolean queen) {
-        ArrayList<ChessConfig> result = new ArrayList<>();
-        int r = row + 1;
-        int c = col;
-        if (row != ChessConfig.row - 1) { // down
-            while (r + 1 < ChessConfig.row && game[r][c] == '.') {
-                r++;
-            }
-            if (game[r][c] != '.') {
-                ChessConfig newC = new ChessConfig(this);
-                newC.game[r][c] = 'R';
-                newC.game[row][col] = '.';
-                if (queen) {
-                    newC.game[r][c] = 'Q';
-                }
-                result.add(newC);
-            }
-        }
-        if (row != 0) { //up
-            r = row - 1;
-            while (r - 1 >= 0 && game[r][c] == '.') {
-                r--;
-            }
-            if (game[r][c] != '.') {
-                ChessConfig newC = new ChessConfig(this);
-                newC.game[r][c] = 'R';
-                newC.game[row][col] = '.';
-                if (queen) {
-                    newC.game[r][c] = 'Q';
-                }
-                result.add(newC);
-            }
-        }
-
-        if (col != ChessConfig.col - 1) { //right
-            r = row;
-            c = col + 1;
-            while (c + 1 < ChessConfig.col && game[r][c] == '.') {
-                c++;
-            }
-            if (game[r][c] != '.') {
-                ChessConfig newC = new ChessConfig(this);
-                newC.game[r][c] = 'R';
-                newC.game[row][col] = '.';
-                if (queen) {
-                    newC.game[r][c] = 'Q';
-                }
-                result.add(newC);
-            }
-        }
-        if (col != 0) { //left
-            c = col - 1;
-            while (c - 1 >= 0 && game[r][c] == '.') {
-                c--;
-            }
-            if (game[r][c] != '.') {
-                ChessConfig newC = new ChessConfig(this);
-                newC.game[r][c] = 'R';
-                newC.game[row][col] = '.';
-                if (queen) {
-                    newC.game[r][c] = 'Q';
-                }
-                result.add(newC);
-            }
-        }
-        return result;
+        return moves(row, col, 'R', queen ? 'Q' : 'R');
     }
 
     /**
@@ -407,10 +322,7 @@ public class ChessConfig implements Configuration {
      * @return Collection of ChessConfigs of all possible valid queen moves
      */
     public Collection<ChessConfig> queenMoves(int row, int col) {
-        ArrayList<ChessConfig> result = new ArrayList<>();
-        result.addAll(bishopMoves(row, col, true));
-        result.addAll(rookMoves(row, col, true));
-        return result;
+        return moves(row, col, 'Q', 'Q');
     }
 
     /**
@@ -421,71 +333,7 @@ public class ChessConfig implements Configuration {
      * @return Collection of ChessConfigs of all possible valid knight moves
      */
     public Collection<ChessConfig> knightMoves(int row, int col) {
-        ArrayList<ChessConfig> result = new ArrayList<>();
-
-        if (row + 2 < ChessConfig.row && col - 1 >= 0) { //2 down 1left
-            if (game[row + 2][col - 1] != '.') {
-                ChessConfig newC = new ChessConfig(this);
-                newC.game[row + 2][col - 1] = 'N';
-                newC.game[row][col] = '.';
-                result.add(newC);
-            }
-        }
-        if (row + 2 < ChessConfig.row && col + 1 < ChessConfig.col) { //2 down 1right
-            if (game[row + 2][col + 1] != '.') {
-                ChessConfig newC = new ChessConfig(this);
-                newC.game[row + 2][col + 1] = 'N';
-                newC.game[row][col] = '.';
-                result.add(newC);
-            }
-        }
-        if (row - 2 >= 0 && col - 1 >= 0) { //2up, 1left
-            if (game[row - 2][col - 1] != '.') {
-                ChessConfig newC = new ChessConfig(this);
-                newC.game[row - 2][col - 1] = 'N';
-                newC.game[row][col] = '.';
-                result.add(newC);
-            }
-        }
-        if (row - 2 >= 0 && col + 1 < ChessConfig.col) { //2up, 1right
-            if (game[row - 2][col + 1] != '.') {
-                ChessConfig newC = new ChessConfig(this);
-                newC.game[row - 2][col + 1] = 'N';
-                newC.game[row][col] = '.';
-                result.add(newC);
-            }
-        }
-        if (col - 2 >= 0 && row - 1 >= 0) {//2left, 1up
-            if (game[row - 1][col - 2] != '.') {
-                ChessConfig newC = new ChessConfig(this);
-                newC.game[row - 1][col - 2] = 'N';
-                newC.game[row][col] = '.';
-                result.add(newC);
-            }
-        }
-        if (col - 2 >= 0 && row + 1 < ChessConfig.row) { //2left, 1down
-            if (game[row + 1][col - 2] != '.') {
-                ChessConfig newC = new ChessConfig(this);
-                newC.game[row + 1][col - 2] = 'N';
-                newC.game[row][col] = '.';
-                result.add(newC);
-            }
-        }
-        if (col + 2 < ChessConfig.col) { //2right, 1up
-            if (row - 1 >= 0 && game[row - 1][col + 2] != '.') {
-                ChessConfig newC = new ChessConfig(this);
-                newC.game[row - 1][col + 2] = 'N';
-                newC.game[row][col] = '.';
-                result.add(newC);
-            }
-            if (row + 1 < ChessConfig.row && game[row + 1][col + 2] != '.') { //2right, 1down
-                ChessConfig newC = new ChessConfig(this);
-                newC.game[row + 1][col + 2] = 'N';
-                newC.game[row][col] = '.';
-                result.add(newC);
-            }
-        }
-        return result;
+        return moves(row, col, 'N', 'N');
     }
 
     /**
@@ -496,24 +344,92 @@ public class ChessConfig implements Configuration {
     @Override
     public Collection<Configuration> getNeighbors() {
         ArrayList<Configuration> result = new ArrayList<>();
-        for (int r = 0; r < row; r++) {
-            for (int c = 0; c < col; c++) {
-                if (game[r][c] == 'B') {
-                    result.addAll(bishopMoves(r, c, false));
-                } else if (game[r][c] == 'K') {
-                    result.addAll(kingMoves(r, c));
-                } else if (game[r][c] == 'N') {
-                    result.addAll(knightMoves(r, c));
-                } else if (game[r][c] == 'P') {
-                    result.addAll(pawnMoves(r, c));
-                } else if (game[r][c] == 'Q') {
-                    result.addAll(queenMoves(r, c));
-                } else if (game[r][c] == 'R') {
-                    result.addAll(rookMoves(r, c, false));
+        forEachNeighbor(result::add);
+        return result;
+    }
+
+    /**
+     * Hands every capture from the current configuration to the visitor, without building any lists
+     *
+     * @param visitor receives each capture, and can stop the rest from being made
+     * @return True if every capture was visited, false if the visitor stopped early
+     */
+    @Override
+    public boolean forEachNeighbor(NeighborVisitor visitor) {
+        int[] targets = new int[8];
+        for (int word = 0; word < 2; word++) {
+            for (long occupied = bits[word]; occupied != 0; occupied &= occupied - 1) {
+                int from = word * 64 + Long.numberOfTrailingZeros(occupied);
+                int piece = code(bits, from);
+                int count = targets(from, piece, targets);
+                for (int i = 0; i < count; i++) {
+                    if (!visitor.visit(capture(from, targets[i], piece))) {
+                        return false;
+                    }
                 }
             }
         }
-        return result;
+        return true;
+    }
+
+    /**
+     * Gets the ids of every capture from the current configuration, in the same order as getNeighbors(). A move
+     * id is the captured square (row * columns + col) plus the capturing square times the number of squares
+     *
+     * @return int[] move ids
+     */
+    @Override
+    public int[] getMoveIds() {
+        int squares = board.rows * board.cols;
+        int[] ids = new int[8];
+        int[] targets = new int[8];
+        int count = 0;
+        for (int word = 0; word < 2; word++) {
+            for (long occupied = bits[word]; occupied != 0; occupied &= occupied - 1) {
+                int from = word * 64 + Long.numberOfTrailingZeros(occupied);
+                int found = targets(from, code(bits, from), targets);
+                if (count + found > ids.length) {
+                    ids = Arrays.copyOf(ids, Math.max(ids.length * 2, count + found));
+                }
+                for (int i = 0; i < found; i++) {
+                    ids[count++] = from * squares + targets[i];
+                }
+            }
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    /**
+     * Makes the capture with the given move id
+     *
+     * @param move id from getMoveIds()
+     * @return ChessConfig after the capture
+     */
+    @Override
+    public ChessConfig applyMove(int move) {
+        int squares = board.rows * board.cols;
+        return capture(move / squares, move % squares, code(bits, move / squares));
+    }
+
+    /**
+     * gets the number of rows on the board
+     * @return integer row total
+     */
+    public int getRows() {
+        return board.rows;
+    }
+
+    /**
+     * gets the number of columns on the board
+     * @return integer column total
+     */
+    public int getCols() {
+        return board.cols;
+    }
+
+    @Override
+    public int getBoardSize() {
+        return board.rows * board.cols;
     }
 
     /**
@@ -523,7 +439,7 @@ public class ChessConfig implements Configuration {
      * @return character in the given cell
      */
     public char getCell(int r, int c){
-        return game[r][c];
+        return SQUARES.charAt(code(bits, r * board.cols + c));
     }
 
     /**
@@ -538,37 +454,37 @@ public class ChessConfig implements Configuration {
     public ChessConfig isValidCapture(int startR, int startC, int endR, int endC, char piece){
         if(piece == 'P'){
             for(ChessConfig c: pawnMoves(startR, startC)){
-                if(c.game[startR][startC] == '.' && c.game[endR][endC] == 'P'){
+                if(c.getCell(startR, startC) == '.' && c.getCell(endR, endC) == 'P'){
                     return c;
                 }
             }
         } else if(piece == 'K'){
             for(ChessConfig c: kingMoves(startR, startC)){
-                if(c.game[startR][startC] == '.' && c.game[endR][endC] == 'K'){
+                if(c.getCell(startR, startC) == '.' && c.getCell(endR, endC) == 'K'){
                     return c;
                 }
             }
         } else if(piece == 'N'){
             for(ChessConfig c: knightMoves(startR, startC)){
-                if(c.game[startR][startC] == '.' && c.game[endR][endC] == 'N'){
+                if(c.getCell(startR, startC) == '.' && c.getCell(endR, endC) == 'N'){
                     return c;
                 }
             }
         } else if(piece == 'B'){
             for(ChessConfig c: bishopMoves(startR, startC, false)){
-                if(c.game[startR][startC] == '.' && c.game[endR][endC] == 'B'){
+                if(c.getCell(startR, startC) == '.' && c.getCell(endR, endC) == 'B'){
                     return c;
                 }
             }
         } else if(piece == 'R'){
             for(ChessConfig c: rookMoves(startR, startC, false)){
-                if(c.game[startR][startC] == '.' && c.game[endR][endC] == 'R'){
+                if(c.getCell(startR, startC) == '.' && c.getCell(endR, endC) == 'R'){
                     return c;
                 }
             }
         } else if(piece == 'Q'){
             for(ChessConfig c: queenMoves(startR, startC)){
-                if(c.game[startR][startC] == '.' && c.game[endR][endC] == 'Q'){
+                if(c.getCell(startR, startC) == '.' && c.getCell(endR, endC) == 'Q'){
                     return c;
                 }
             }
@@ -583,15 +499,96 @@ public class ChessConfig implements Configuration {
      */
     @Override
     public boolean isSolution() {
-        int pieces = 0;
-        for (int r = 0; r < row; r++) {
-            for (int c = 0; c < col; c++) {
-                if (game[r][c] != '.') {
-                    pieces++;
+        return getPieces() == 1;
+    }
+
+    /**
+     * Counts the pieces left on the board
+     *
+     * @return Integer number of pieces
+     */
+    public int getPieces() {
+        return Long.bitCount(bits[0]) + Long.bitCount(bits[1]);
+    }
+
+    /**
+     * Gets the number of longs needed to pack every originally occupied square at 3 bits each, which is a single
+     * long for boards that start with up to 21 pieces
+     *
+     * @return Integer number of longs
+     */
+    @Override
+    public int getEncodedWidth() {
+        return Math.max(1, (board.startSquares.length + SQUARES_PER_WORD - 1) / SQUARES_PER_WORD);
+    }
+
+    /**
+     * Packs every originally occupied square, in row major order, into 3 bits each. The rest of the board is
+     * always empty, so it is left out
+     *
+     * @param words array to write the encoding into
+     * @param offset index of the first long to write
+     */
+    @Override
+    public void encode(long[] words, int offset) {
+        Arrays.fill(words, offset, offset + getEncodedWidth(), 0L);
+        for (int i = 0; i < board.startSquares.length; i++) {
+            int shift = i % SQUARES_PER_WORD * 3;
+            words[offset + i / SQUARES_PER_WORD] |= (long) code(bits, board.startSquares[i]) << shift;
+        }
+    }
+
+    /**
+     * Unpacks a chess board of the same puzzle as this one, putting each 3 bit piece code back on the originally
+     * occupied square it was packed from. The originally occupied squares are shared by every board of the
+     * puzzle, so they come from this board rather than the encoding, which only holds the piece codes
+     *
+     * @param words array holding the encoding
+     * @param offset index of the first long of the encoding
+     * @return ChessConfig that was encoded
+     */
+    @Override
+    public ChessConfig decode(long[] words, int offset) {
+        long[] decoded = new long[bits.length];
+        for (int i = 0; i < board.startSquares.length; i++) {
+            int shift = i % SQUARES_PER_WORD * 3;
+            place(decoded, board.startSquares[i], (int) (words[offset + i / SQUARES_PER_WORD] >>> shift) & 7);
+        }
+        return new ChessConfig(board, decoded);
+    }
+
+    /**
+     * Gets the canonical board out of this board and its left/right mirror image, whichever comes first square
+     * by square. Pawns only capture upwards, so flipping the board upside down is not a symmetry.
+     *
+     * @return ChessConfig canonical board
+     */
+    @Override
+    public ChessConfig getCanonical() {
+        for (int r = 0; r < board.rows; r++) {
+            for (int c = 0; c < board.cols; c++) {
+                char mirrored = getCell(r, board.cols - 1 - c);
+                if (mirrored != getCell(r, c)) {
+                    return mirrored > getCell(r, c) ? this : mirror();
                 }
             }
         }
-        return pieces == 1;
+        return this;
+    }
+
+    /**
+     * Creates the left/right mirror image of this board
+     *
+     * @return ChessConfig mirror image
+     */
+    private ChessConfig mirror() {
+        long[] mirrored = new long[bits.length];
+        for (int r = 0; r < board.rows; r++) {
+            for (int c = 0; c < board.cols; c++) {
+                place(mirrored, r * board.cols + c, code(bits, r * board.cols + board.cols - 1 - c));
+            }
+        }
+        return new ChessConfig(board, mirrored);
     }
 
     /**
@@ -601,9 +598,9 @@ public class ChessConfig implements Configuration {
     @Override
     public String toString() {
         StringBuilder result = new StringBuilder();
-        for(int r = 0; r< row; r++){
-            for(int c = 0; c<col; c++){
-                result.append(game[r][c]);
+        for(int r = 0; r< board.rows; r++){
+            for(int c = 0; c<board.cols; c++){
+                result.append(getCell(r, c));
                 result.append(" ");
             }
             result.append(System.lineSeparator());
@@ -620,21 +617,21 @@ public class ChessConfig implements Configuration {
         StringBuilder result = new StringBuilder(" ");
 
         result.append(" ");
-        for (int c=0; c<col; ++c) {
+        for (int c=0; c<board.cols; ++c) {
             result.append(c).append(" ");
         }
 
         result.append(System.lineSeparator()).append("  ");
-        result.append(("-").repeat(Math.max(0, col  * 2-1)));
+        result.append(("-").repeat(Math.max(0, board.cols  * 2-1)));
         result.append(System.lineSeparator());
 
-        for (int r=0; r<row; ++r) {
+        for (int r=0; r<board.rows; ++r) {
             result.append(r).append('|');
-            for (int c = 0; c<col; ++c) {
-                if (c != col-1) {
-                    result.append(game[r][c]).append(" ");
+            for (int c = 0; c<board.cols; ++c) {
+                if (c != board.cols-1) {
+                    result.append(getCell(r, c)).append(" ");
                 } else {
-                    result.append(game[r][c]).append(System.lineSeparator());
+                    result.append(getCell(r, c)).append(System.lineSeparator());
                 }
             }
         }
@@ -644,32 +641,27 @@ public class ChessConfig implements Configuration {
     }
 
     /**
-     * Compares given chess board to the current chess board
+     * Compares given chess board to the current chess board. Boards with different Zobrist hashes can't be the
+     * same, so the masks are only compared when the hashes match
      *
      * @param other other board being compared to
      * @return true if the same false if not
      */
     @Override
     public boolean equals(Object other) {
-        if (other instanceof ChessConfig ch) {
-            for (int r = 0; r < row; r++) {
-                for (int c = 0; c < col; c++) {
-                    if (game[r][c] != ch.game[r][c]) {
-                        return false;
-                    }
-                }
-            }
+        if (!(other instanceof ChessConfig ch) || zobrist != ch.zobrist) {
+            return false;
         }
-        return true;
+        return Arrays.equals(bits, ch.bits);
     }
 
     /**
-     * Creates hash code of current given board
+     * Gets the hash code of the current board, folded down from its Zobrist hash
      *
      * @return Integer hash code
      */
     @Override
     public int hashCode() {
-        return toString().hashCode();
+        return (int) (zobrist ^ zobrist >>> 32);
     }
 }
\ No newline at end of file
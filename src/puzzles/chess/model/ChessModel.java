@@ -1,11 +1,14 @@
 package puzzles.chess.model;
 
+import puzzles.common.Hinter;
 import puzzles.common.Observer;
 import puzzles.common.solver.Configuration;
-import puzzles.common.solver.Solver;
+import puzzles.common.solver.SolverMetrics;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
 
 /**
  * Model class that uses ChessConfig to carry out necessary actions to be used by the PTUI and the GUI
@@ -13,6 +16,8 @@ import java.util.List;
  * @author Madeline Mariano mam5090
  */
 public class ChessModel {
+    /** how long a hint can take by default, in milliseconds */
+    public static final long DEFAULT_HINT_TIME_LIMIT = Hinter.DEFAULT_TIME_LIMIT;
     /** the collection of observers of this model */
     private final List<Observer<ChessModel, String>> observers = new LinkedList<>();
     /** the current configuration */
@@ -23,6 +28,23 @@ public class ChessModel {
     private int cR;
     /** the current column selected, -1 if none */
     private int cC;
+    /** works out hints in the background */
+    private final Hinter<ChessModel> hinter = new Hinter<>(this, "chess-hint", new Hinter.Listener() {
+        @Override
+        public void hintFound(Configuration next) {
+            deliverHint(next);
+        }
+
+        @Override
+        public void hintGaveUp() {
+            alertObservers("Hint took too long, gave up :(");
+        }
+
+        @Override
+        public void databaseBuilt(int size) {
+            alertObservers("Solved all " + size + " reachable boards");
+        }
+    });
 
     /**
      * The view calls this to add itself as an observer.
@@ -33,6 +55,16 @@ public class ChessModel {
         this.observers.add(observer);
     }
 
+    /**
+     * The view calls this to be told how a hint's search is going while it runs, at most every
+     * SolverListener.PROGRESS_INTERVAL milliseconds, from the background thread.
+     *
+     * @param observer the view
+     */
+    public void addProgressObserver(Observer<ChessModel, SolverMetrics> observer) {
+        hinter.addProgressObserver(observer);
+    }
+
     /**
      * The model's state has changed (the counter), so inform the view via
      * the update method
@@ -70,7 +102,7 @@ public class ChessModel {
      * @return integer row total
      */
     public int getRow(){
-        return ChessConfig.row;
+        return currentConfig.getRows();
     }
 
     /**
@@ -78,7 +110,7 @@ public class ChessModel {
      * @return integer column total
      */
     public int getCol(){
-        return ChessConfig.col;
+        return currentConfig.getCols();
     }
 
     /**
@@ -95,10 +127,12 @@ public class ChessModel {
      * loads a new game from given file
      * @param filename file with new chess info
      */
-    public void loadNew(String filename) {
+    public synchronized void loadNew(String filename) {
+        hinter.cancel();
         try {
             this.currentConfig = new ChessConfig(filename);
             this.origConfig = currentConfig;
+            hinter.clear();
             alertObservers("Loaded: " +filename);
             cR = -1;
             cC = -1;
@@ -114,16 +148,17 @@ public class ChessModel {
      * @param r given row
      * @param c given column
      */
-    public void selectCell(int r, int c){
+    public synchronized void selectCell(int r, int c){
+        hinter.cancel();
         if(currentConfig.isSolution()){
             alertObservers("Game won! Quit/reset/load a new game :)");
         }
         else {
-            if (r < ChessConfig.row && r >= 0 && c >= 0 && c < ChessConfig.col && cR == -1 && cC == -1) {
+            if (r < getRow() && r >= 0 && c >= 0 && c < getCol() && cR == -1 && cC == -1) {
                 this.cR = r;
                 this.cC = c;
                 alertObservers("Selected (" + r + ", " + c + ")");
-            } else if (r < ChessConfig.row && r >= 0 && c >= 0 && c < ChessConfig.col && cR != -1 && cC != -1) {
+            } else if (r < getRow() && r >= 0 && c >= 0 && c < getCol() && cR != -1 && cC != -1) {
                 capture(r, c);
             } else {
                 alertObservers("Invalid selection (" + r + ", " + c + ")");
@@ -136,7 +171,8 @@ public class ChessModel {
     /**
      * resets the board to the original configuration
      */
-    public void reset(){
+    public synchronized void reset(){
+        hinter.cancel();
         this.currentConfig = origConfig;
         cR = -1;
         cC = -1;
@@ -150,7 +186,8 @@ public class ChessModel {
      * @param endR end row
      * @param endC end column
      */
-    public void capture( int endR, int endC){
+    public synchronized void capture( int endR, int endC){
+        hinter.cancel();
         ChessConfig move = currentConfig.isValidCapture(cR,cC, endR, endC, currentConfig.getCell(cR,cC));
         if(move != null){
             currentConfig = move;
@@ -168,26 +205,66 @@ public class ChessModel {
     }
 
     /**
-     * sets the current board to the next movement, if such a path to the solution exists. if none exist,
-     * user is told there is no solution. If the given hint completes the game, the user is informed.
+     * sets how long a hint can take before it gives up
+     * @param millis milliseconds, 0 for no limit
+     */
+    public synchronized void setHintTimeLimit(long millis){
+        hinter.setTimeLimit(millis);
+    }
+
+    /**
+     * starts looking for a path to the solution in the background. When it finishes, sets the current board to the
+     * next movement, if such a path exists. if none exist, user is told there is no solution. If the given hint
+     * completes the game, the user is informed. Observers are told from the background thread. Progress observers are
+     * told how the search is going while it runs. A hint still in progress is cancelled by another hint, a selection,
+     * a capture, a reset or a load. Boards on a path found by an earlier hint get their hint straight away, without
+     * searching again, and so does every board once buildDatabase has finished. If the puzzles.cache.dir system
+     * property is set, the solution from the starting board is kept on disk there, so it is read back rather than
+     * searched for after a restart.
+     * @return Future that completes once the hint has been delivered or given up on
      */
-    public void hint(){
+    public synchronized Future<?> hint(){
         if(currentConfig.isSolution()){
+            hinter.cancel();
             alertObservers("Game won! Quit/reset/load a new game :)");
+            return CompletableFuture.completedFuture(null);
         }
-        else {
-            Solver solver = new Solver();
-            LinkedList<Configuration> path = solver.solve(currentConfig);
-            if (path.size() != 0) {
-                currentConfig = (ChessConfig) path.get(1);
-                if (currentConfig.isSolution()) {
-                    alertObservers("Game won! Quit/reset/load a new game :)");
-                } else {
-                    alertObservers("Next step!");
-                }
+        return hinter.hint(currentConfig, currentConfig == origConfig);
+    }
+
+    /**
+     * sets the current board to the next movement and tells the observers
+     * @param next the next movement, null if there is no path to the solution
+     */
+    private void deliverHint(Configuration next){
+        if (next != null) {
+            currentConfig = (ChessConfig) next;
+            if (currentConfig.isSolution()) {
+                alertObservers("Game won! Quit/reset/load a new game :)");
             } else {
-                alertObservers("No solution found :(");
+                alertObservers("Next step!");
             }
+        } else {
+            alertObservers("No solution found :(");
+        }
+    }
+
+    /**
+     * starts labelling every board that can be reached in the loaded puzzle with its distance to the solution, in
+     * the background. Once it is built, every hint for the puzzle is a lookup instead of a search. Observers are
+     * told from the background thread when it is done. Loading another puzzle cancels it and throws it away.
+     * @return Future that completes once the database has been built or given up on
+     */
+    public synchronized Future<?> buildDatabase(){
+        return hinter.buildDatabase(origConfig);
+    }
+
+    /**
+     * stops the hint in progress, if there is one, alerting the observers
+     */
+    public synchronized void stopHint() {
+        if (hinter.cancel()) {
+            alertObservers("Hint cancelled");
         }
     }
 }
@@ -5,6 +5,8 @@ import puzzles.chess.model.ChessModel;
 
 import java.io.IOException;
 import java.util.Scanner;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 /**
  * A Plain-Text user interface for the Solitare Chess game
  *
@@ -34,6 +36,7 @@ public class ChessPTUI implements Observer<ChessModel, String> {
     }
 
     private void displayHelp() {
+        System.out.println( "d(atabase)          -- solve every state, for instant hints" );
         System.out.println( "h(int)              -- hint next move" );
         System.out.println( "l(oad) filename     -- load new puzzle file" );
         System.out.println( "s(elect) r c        -- select cell at r, c" );
@@ -52,7 +55,19 @@ public class ChessPTUI implements Observer<ChessModel, String> {
                     break;
                 }
                 else if(words[0].startsWith( "h" )){
-                    model.hint();
+                    try {
+                        model.hint().get();  // wait, so the hint prints before the next prompt
+                    } catch (InterruptedException | ExecutionException e) {
+                        System.out.println("Hint failed: " + e.getMessage());
+                    }
+                } else if(words[0].startsWith( "d" )){
+                    try {
+                        model.buildDatabase().get();
+                    } catch (InterruptedException | ExecutionException e) {
+                        System.out.println("Solving every board failed: " + e.getMessage());
+                    } catch (CancellationException e) {  // the puzzle was reset or another one loaded
+                        System.out.println("Solving every board was cancelled");
+                    }
                 } else if(words[0].startsWith( "l" )){
                    if(words.length > 1){
                        model.loadNew(words[1]);
@@ -2,38 +2,79 @@ package puzzles.chess.solver;
 
 import puzzles.chess.model.ChessConfig;
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.PrometheusExporter;
+import puzzles.common.solver.SearchMode;
+import puzzles.common.solver.SolutionStore;
 import puzzles.common.solver.Solver;
 
 
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
 import java.util.LinkedList;
 
 public class Chess {
     public static void main(String[] args) {
-        if (args.length != 1) {
-            System.out.println("Usage: java Chess filename");
+        if (args.length < 1 || args.length > 2) {
+            System.out.println("Usage: java Chess filename [mode]");
         }
         else{
-            String file = args[0];
-            System.out.println("File: " + file);
-            Solver solver = new Solver();
+            Solver solver = args.length > 1 ? new Solver(SearchMode.valueOf(args[1].toUpperCase())) : new Solver();
             try {
-                Configuration start = new ChessConfig(file);
-                System.out.println(start);
-                LinkedList<Configuration> path = solver.solve(start);
-                System.out.println("Total configs: " + solver.getNumConfigs());
-                System.out.println("Unique configs: " + solver.getUniqueConfigs() + "\n");
-                if (path.size() > 0) {
-                    for (int i=0; i<path.size(); i++) {
-                        System.out.println("Step: " + i);
-                        System.out.print(path.get(i).toString() + "\n");
-                    }
-                } else {
-                    System.out.println("No Solution");
-                }
+                solve(args[0], solver, System.out);
             } catch (Exception e) {
                 e.printStackTrace();
             }
         }
     }
-}
 
+    /**
+     * solves a puzzle file and prints the starting board, the search counts and every step of the solution. A
+     * board solved before with the same mode is read back from the SolutionStore instead of searched again, if the
+     * puzzles.cache.dir system property names one, and is labelled as cached. Setting the puzzles.metrics.file
+     * system property exports the search's metrics to that file as it goes
+     * @param file puzzle file to solve
+     * @param solver solver to solve it with
+     * @param out where to print the solution
+     * @return the solution and its search counts
+     * @throws IOException if the file can't be read
+     */
+    public static SolutionStore.Entry solve(String file, Solver solver, PrintStream out) throws IOException {
+        out.println("File: " + file);
+        solver.setHeuristic(ChessConfig.HEURISTIC);
+        String metrics = System.getProperty(PrometheusExporter.FILE_PROPERTY);
+        if (metrics != null) {
+            solver.addListener(new PrometheusExporter(Path.of(metrics), file));
+        }
+        Configuration start = new ChessConfig(file);
+        out.println(start);
+        SolutionStore store = SolutionStore.getDefault();
+        SolutionStore.Entry entry = store != null ? store.load(start, solver.getMode()) : null;
+        if (entry == null) {
+            LinkedList<Configuration> solution = solver.solve(start);
+            entry = new SolutionStore.Entry(solution, solver.getNumConfigs(), solver.getUniqueConfigs(), false);
+        }
+        if (store != null && !entry.cached()) {
+            try {
+                store.save(start, solver.getMode(), entry.path(), entry.numConfigs(), entry.uniqueConfigs());
+            } catch (IOException e) {
+                System.err.println("Could not cache the solution: " + e.getMessage());
+            }
+        }
+        LinkedList<Configuration> path = entry.path();
+        if (entry.cached()) {
+            out.println("Cached: read back from " + System.getProperty(SolutionStore.DIRECTORY_PROPERTY));
+        }
+        out.println("Total configs: " + entry.numConfigs());
+        out.println("Unique configs: " + entry.uniqueConfigs() + "\n");
+        if (path.size() > 0) {
+            for (int i=0; i<path.size(); i++) {
+                out.println("Step: " + i);
+                out.print(path.get(i).toString() + "\n");
+            }
+        } else {
+            out.println("No Solution");
+        }
+        return entry;
+    }
+}
@@ -1,20 +1,22 @@
 package puzzles.clock;
 
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.SearchMode;
 import puzzles.common.solver.Solver;
 
 import java.util.LinkedList;
 
 public class Clock {
     public static void main(String[] args) {
-        if (args.length < 2) {
-            System.out.println(("Usage: java Clock hours stop end"));
+        if (args.length < 3) {
+            System.out.println(("Usage: java Clock hours stop end [mode]"));
         } else {
             int hours = Integer.parseInt(args[0]);
             int start = Integer.parseInt(args[1]);
             int end = Integer.parseInt(args[2]);
             System.out.println("Hours: " + hours + ", Start: " + start + ", End: " + end);
-            Solver solver = new Solver();
+            Solver solver = args.length > 3 ? new Solver(SearchMode.valueOf(args[3].toUpperCase())) : new Solver();
+            solver.setHeuristic(ClockConfig.HEURISTIC);
             LinkedList<Configuration> solution = solver.solve(new ClockConfig(hours, start, end));
             System.out.println("Total configs: " + solver.getNumConfigs());
             System.out.println("Unique configs: " + solver.getUniqueConfigs());
@@ -1,31 +1,41 @@
 package puzzles.clock;
 
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.Encodable;
+import puzzles.common.solver.Heuristic;
+import puzzles.common.solver.Reversible;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
-public class ClockConfig implements Configuration {
+public class ClockConfig implements Reversible, Encodable {
+    /** the hand moves one hour at a time, so the distance around the clock is the exact number of moves left */
+    public static final Heuristic HEURISTIC = config -> ((ClockConfig) config).getDistance();
 
-    private int current;
-    private static int end;
-    private static int hours;
+    private final int current;
+    private final int end;
+    private final int hours;
 
     /**
      * Configuration for a clock in the clock puzzle
-     * @param hours - static int, how many hours are on the clock
+     * @param hours - int, how many hours are on the clock
      * @param start - int, what the start, or current time on the clock is
-     * @param end - static int, what the goal of the clock is
+     * @param end - int, what the goal of the clock is
      */
     public ClockConfig(int hours, int start, int end) {
-        ClockConfig.hours = hours;
+        this.hours = hours;
         this.current = start;
-        ClockConfig.end = end;
+        this.end = end;
     }
 
-    public ClockConfig(int current) {
-        this.current = current;
+    /**
+     * another time on the same clock as a configuration, with the same hours and goal
+     * @param other - ClockConfig, a configuration of the same puzzle
+     * @param current - int, the time on the clock
+     */
+    private ClockConfig(ClockConfig other, int current) {
+        this(other.hours, current, other.end);
     }
 
     @Override
@@ -33,15 +43,82 @@ public class ClockConfig implements Configuration {
         return current == end;
     }
 
+    /**
+     * the number of hours between the current time and the goal, going whichever way around is shorter
+     * @return int - hours to the goal, 0 if the goal isn't on the clock
+     */
+    public int getDistance() {
+        if (end < 1 || end > hours) {
+            return 0;
+        }
+        int distance = Math.abs(current - end);
+        return Math.min(distance, hours - distance);
+    }
+
+    /**
+     * the time on the clock
+     * @return int - the current hour, from 1 to hours
+     */
+    public int getTime() {
+        return current;
+    }
+
+    @Override
+    public int getBoardSize() {
+        return hours;
+    }
+
     @Override
     public Collection<Configuration> getNeighbors() {
         int l = (current-1<1) ? (current-1)+hours : current-1;
         int r = (current+1>hours) ? (current+1)-hours : current+1;
-        ClockConfig left = new ClockConfig(l);
-        ClockConfig right = new ClockConfig(r);
+        ClockConfig left = new ClockConfig(this, l);
+        ClockConfig right = new ClockConfig(this, r);
         return new ArrayList<>(List.of(left, right));
     }
 
+    /**
+     * the goal time, or null if it isn't on the clock
+     * @return Configuration - the goal time
+     */
+    @Override
+    public Configuration getGoal() {
+        return (end >= 1 && end <= hours) ? new ClockConfig(this, end) : null;
+    }
+
+    /**
+     * moving the hand is reversible, so the predecessors are the neighbors
+     * @return Collection<Configuration> - the times one hour before and after
+     */
+    @Override
+    public Collection<Configuration> getPredecessors() {
+        return getNeighbors();
+    }
+
+    /**
+     * the size of the clock and the goal time, neither of which is printed with the time
+     * @return String
+     */
+    @Override
+    public String describePuzzle() {
+        return hours + " hours to " + end;
+    }
+
+    @Override
+    public int getEncodedWidth() {
+        return 1;
+    }
+
+    @Override
+    public void encode(long[] words, int offset) {
+        words[offset] = current;
+    }
+
+    @Override
+    public Configuration decode(long[] words, int offset) {
+        return new ClockConfig(this, (int) words[offset]);
+    }
+
     @Override
     public boolean equals(Object other) {
         if (other instanceof ClockConfig c) {
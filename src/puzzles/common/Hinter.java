@@ -0,0 +1,293 @@
+package puzzles.common;
+
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.PathCache;
+import puzzles.common.solver.SearchMode;
+import puzzles.common.solver.SolutionStore;
+import puzzles.common.solver.SolvedDatabase;
+import puzzles.common.solver.Solver;
+import puzzles.common.solver.SolverListener;
+import puzzles.common.solver.SolverMetrics;
+
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Works out hints for a puzzle's model in the background, one at a time, so the models of every puzzle share the
+ * same hint handling. Hints in states on a path found by an earlier hint, or in any state once the solved database
+ * has been built, are answered straight away. If the puzzles.cache.dir system property names a SolutionStore, the
+ * solution from the puzzle's starting state is kept there, so it is read back rather than solved for after a
+ * restart.
+ *
+ * Everything is guarded by the model's lock: the model calls in from its own synchronized methods, and the
+ * background thread holds the model's lock while it calls the model back.
+ *
+ * @param <Model> the model the hints are for
+ */
+public class Hinter<Model> {
+    /** how long a hint can take by default, in milliseconds */
+    public static final long DEFAULT_TIME_LIMIT = 10_000;
+
+    /**
+     * What the model does once a hint or the database is done, always called holding the model's lock
+     */
+    public interface Listener {
+        /**
+         * the hint has been worked out
+         * @param next the next step towards the solution, null if there is no solution
+         */
+        void hintFound(Configuration next);
+
+        /**
+         * the hint took longer than the time limit and was given up on
+         */
+        void hintGaveUp();
+
+        /**
+         * the solved database has been built, so every hint for the puzzle is a lookup from now on
+         * @param size number of states reachable in the puzzle
+         */
+        void databaseBuilt(int size);
+    }
+
+    /** the model the hints are for, whose lock guards everything here */
+    private final Model model;
+    /** what the model does with the hints */
+    private final Listener listener;
+    /** the observers told how a hint's search is going */
+    private final List<Observer<Model, SolverMetrics>> progressObservers = new LinkedList<>();
+    /** works out hints off the UI thread, one at a time */
+    private final ExecutorService executor;
+    /** builds the solved database, on its own thread so hints don't wait behind it */
+    private final ExecutorService databaseExecutor;
+    /** the solver working out the hint in progress, null if there isn't one */
+    private Solver solver;
+    /** how long a hint can take, in milliseconds, 0 for no limit */
+    private long timeLimit = DEFAULT_TIME_LIMIT;
+    /** solution paths found by earlier hints for the loaded puzzle */
+    private final PathCache cache = new PathCache();
+    /** solutions kept on disk, so the first hint of a puzzle solved before is read back after a restart, null if
+     * they aren't kept */
+    private final SolutionStore store = SolutionStore.getDefault();
+    /** distance to the solution of every state reachable in the loaded puzzle, null until it's built */
+    private SolvedDatabase database;
+    /** the database being built for the loaded puzzle, null if there isn't one */
+    private Future<?> databaseTask;
+    /** starting state of the puzzle the database is being built for, null if there isn't one */
+    private Configuration databaseStart;
+
+    /**
+     * creates the hints for a model
+     * @param model the model the hints are for
+     * @param name name of the hint thread, the database thread is named after it
+     * @param listener what the model does with the hints
+     */
+    public Hinter(Model model, String name, Listener listener) {
+        this.model = model;
+        this.listener = listener;
+        this.executor = daemonExecutor(name);
+        this.databaseExecutor = daemonExecutor(name + "-database");
+    }
+
+    /**
+     * creates an executor that runs tasks one at a time on a thread that doesn't keep the program running
+     * @param name name of the thread
+     * @return ExecutorService
+     */
+    private static ExecutorService daemonExecutor(String name) {
+        return Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * adds an observer told how a hint's search is going while it runs, at most every
+     * SolverListener.PROGRESS_INTERVAL milliseconds, from the background thread.
+     *
+     * @param observer the view
+     */
+    public void addProgressObserver(Observer<Model, SolverMetrics> observer) {
+        this.progressObservers.add(observer);
+    }
+
+    /**
+     * tells the progress observers how a hint's search is going, unless it's no longer the hint in progress
+     * @param solver solver of the hint
+     * @param metrics the search so far
+     */
+    private void alertProgress(Solver solver, SolverMetrics metrics) {
+        synchronized (model) {
+            if (this.solver != solver) {
+                return;
+            }
+            for (var observer : progressObservers) {
+                observer.update(model, metrics);
+            }
+        }
+    }
+
+    /**
+     * sets how long a hint can take before it gives up
+     * @param millis milliseconds, 0 for no limit
+     */
+    public void setTimeLimit(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Hint time limit can't be negative: " + millis);
+        }
+        this.timeLimit = millis;
+    }
+
+    /**
+     * starts working out the next step from a state that isn't a solution, cancelling the hint in progress. The
+     * listener is told straight away if the step is already known, otherwise from the background thread once it
+     * has been solved for.
+     * @param start state the hint is asked for in
+     * @param fromStart whether start is the puzzle's starting state, whose solution can be kept on disk
+     * @return Future that completes once the hint has been delivered or given up on
+     */
+    public Future<?> hint(Configuration start, boolean fromStart) {
+        cancel();
+        if (database != null && database.contains(start)) {
+            listener.hintFound(database.getNext(start));
+            return CompletableFuture.completedFuture(null);
+        }
+        if (cache.contains(start)) {
+            listener.hintFound(cache.getNext(start));
+            return CompletableFuture.completedFuture(null);
+        }
+        Solver solver = new Solver(SearchMode.DEPTH_FIRST);
+        solver.addListener(new SolverListener() {
+            @Override
+            public void progress(SolverMetrics metrics) {
+                alertProgress(solver, metrics);
+            }
+        });
+        solver.setTimeLimit(timeLimit);
+        this.solver = solver;
+        return executor.submit(() -> finish(solver, start, fromStart));
+    }
+
+    /**
+     * solves for a hint on the background thread and delivers it, unless the hint was cancelled
+     * @param solver solver for this hint
+     * @param start state the hint was asked for in
+     * @param fromStart whether start is the puzzle's starting state, whose solution can be kept on disk
+     */
+    private void finish(Solver solver, Configuration start, boolean fromStart) {
+        LinkedList<Configuration> path;
+        try {
+            SolutionStore.Entry stored = fromStart && store != null ? store.load(start, solver.getMode()) : null;
+            if (stored != null) {
+                path = stored.path();
+            } else {
+                path = solver.solve(start);
+                if (fromStart && store != null) {
+                    try {
+                        store.save(start, solver.getMode(), path, solver.getNumConfigs(), solver.getUniqueConfigs());
+                    } catch (IOException e) {
+                        // the hint still works, it just won't be read back after a restart
+                    }
+                }
+            }
+        } catch (CancellationException e) {
+            synchronized (model) {
+                if (this.solver == solver) {
+                    this.solver = null;
+                    listener.hintGaveUp();
+                }
+            }
+            return;
+        }
+        synchronized (model) {
+            if (this.solver != solver) {
+                return;
+            }
+            this.solver = null;
+            if (path.size() > 0) {
+                cache.add(path);
+                listener.hintFound(path.get(1));
+            } else {
+                cache.addUnsolvable(start);
+                listener.hintFound(null);
+            }
+        }
+    }
+
+    /**
+     * starts labelling every state that can be reached in a puzzle with its distance to the solution, in the
+     * background. It is built on a thread of its own, so hints asked for meanwhile are still solved for straight
+     * away. The listener is told from the background thread when it is done, unless clear was called meanwhile.
+     * @param start starting state of the puzzle
+     * @return Future that completes once the database has been built or given up on
+     */
+    public Future<?> buildDatabase(Configuration start) {
+        cancelDatabase();
+        databaseStart = start;
+        databaseTask = databaseExecutor.submit(() -> finishDatabase(start));
+        return databaseTask;
+    }
+
+    /**
+     * builds the database on the background thread and keeps it, unless it was thrown away meanwhile
+     * @param start starting state of the puzzle it is built for
+     */
+    private void finishDatabase(Configuration start) {
+        SolvedDatabase built;
+        try {
+            built = new SolvedDatabase(start);
+        } catch (CancellationException e) {
+            return;
+        }
+        synchronized (model) {
+            if (databaseStart != start) {
+                return;
+            }
+            database = built;
+            databaseTask = null;
+            databaseStart = null;
+            listener.databaseBuilt(built.size());
+        }
+    }
+
+    /**
+     * stops building the database and forgets the one that was built
+     */
+    private void cancelDatabase() {
+        if (databaseTask != null) {
+            databaseTask.cancel(true);
+            databaseTask = null;
+        }
+        databaseStart = null;
+        database = null;
+    }
+
+    /**
+     * cancels the hint in progress, if there is one
+     * @return true if there was a hint in progress
+     */
+    public boolean cancel() {
+        if (solver == null) {
+            return false;
+        }
+        solver.cancel();
+        solver = null;
+        return true;
+    }
+
+    /**
+     * forgets the paths found by earlier hints and the database, stopping it being built, for when another puzzle
+     * is loaded
+     */
+    public void clear() {
+        cache.clear();
+        cancelDatabase();
+    }
+}
@@ -0,0 +1,82 @@
+package puzzles.common.solver;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.PriorityQueue;
+
+/**
+ * A* search. Configurations are expanded in order of moves taken so far plus the heuristic's estimate of the
+ * moves left, breaking ties towards the smaller estimate. With an admissible heuristic the first solution
+ * expanded is at the end of a shortest path. If a shorter way to an already seen configuration turns up it is
+ * reopened, so heuristics that are admissible but not consistent still work.
+ */
+class AStarSearch extends Search {
+    /**
+     * An entry in the open queue
+     * @param f moves taken plus estimated moves left
+     * @param h estimated moves left
+     * @param g moves taken to reach the configuration
+     * @param index index of the configuration in the state table
+     */
+    private record Node(int f, int h, int g, int index) {}
+
+    /** open queue order: smallest f, then smallest h, then first seen */
+    private static final Comparator<Node> ORDER = Comparator.comparingInt(Node::f)
+            .thenComparingInt(Node::h)
+            .thenComparingInt(Node::index);
+
+    /** the estimate of moves left */
+    private final Heuristic heuristic;
+
+    /**
+     * creates an A* search
+     * @param heuristic the estimate of moves left
+     */
+    AStarSearch(Heuristic heuristic) {
+        this.heuristic = heuristic;
+    }
+
+    @Override
+    LinkedList<Configuration> solve(Configuration start) {
+        StateTable table = new StateTable(FrontierSearch.INITIAL_CAPACITY);
+        int[] moves = new int[FrontierSearch.INITIAL_CAPACITY];
+        PriorityQueue<Node> open = new PriorityQueue<>(ORDER);
+        table.add(start, -1);
+        int h = heuristic.estimate(start);
+        open.add(new Node(h, h, 0, 0));
+        while (!open.isEmpty()) {
+            checkpoint();
+            Node node = open.poll();
+            if (node.g() != moves[node.index()]) { // a shorter way here was already expanded
+                continue;
+            }
+            Configuration next = table.get(node.index());
+            if (next.isSolution()) {
+                uniqueConfigs = table.size();
+                searchDone();
+                return table.pathTo(node.index());
+            }
+            int g = node.g() + 1;
+            for (Configuration c : next.getNeighbors()) {
+                numConfigs++;
+                int index = table.add(c, node.index());
+                if (index == -1) {
+                    index = table.indexOf(c);
+                    if (g >= moves[index]) {
+                        continue;
+                    }
+                    table.setParent(index, node.index());
+                } else if (index == moves.length) {
+                    moves = Arrays.copyOf(moves, moves.length << 1);
+                }
+                moves[index] = g;
+                h = heuristic.estimate(c);
+                open.add(new Node(g + h, h, g, index));
+            }
+        }
+        uniqueConfigs = table.size();
+        searchDone();
+        return new LinkedList<>();
+    }
+}
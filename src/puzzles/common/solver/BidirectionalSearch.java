@@ -0,0 +1,71 @@
+package puzzles.common.solver;
+
+import java.util.LinkedList;
+
+/**
+ * Breadth first search that runs forwards from the start and backwards from the goal at the same time, expanding
+ * a whole level of whichever side has the smaller frontier. When the two sides meet, the shortest path is the
+ * forward path to the meeting configuration followed by the backward path from it to the goal. Configurations
+ * that are not Reversible, or don't have a valid goal, are solved with a plain FrontierSearch.
+ */
+class BidirectionalSearch extends Search {
+
+    @Override
+    LinkedList<Configuration> solve(Configuration start) {
+        Configuration goal = start instanceof Reversible r && !start.isSolution() ? r.getGoal() : null;
+        if (goal == null) {
+            return delegate(new FrontierSearch(), start);
+        }
+        StateTable forward = new StateTable(FrontierSearch.INITIAL_CAPACITY);
+        StateTable backward = new StateTable(FrontierSearch.INITIAL_CAPACITY);
+        forward.add(start, -1);
+        backward.add(goal, -1);
+        numConfigs++;
+        // index of the first configuration in the level each side will expand next
+        int forwardStart = 0;
+        int backwardStart = 0;
+        int forwardMeet = -1;
+        int backwardMeet = -1;
+        while (forwardMeet == -1 && forwardStart < forward.size() && backwardStart < backward.size()) {
+            boolean forwards = forward.size() - forwardStart <= backward.size() - backwardStart;
+            StateTable side = forwards ? forward : backward;
+            StateTable other = forwards ? backward : forward;
+            int levelStart = forwards ? forwardStart : backwardStart;
+            int levelEnd = side.size();
+            levelReached(forward.size() + backward.size(), levelEnd - levelStart, side.loadFactor());
+            int bestLength = Integer.MAX_VALUE;
+            for (int i = levelStart; i < levelEnd; i++) {
+                checkpoint();
+                Configuration next = side.get(i);
+                for (Configuration c : forwards ? next.getNeighbors() : ((Reversible) next).getPredecessors()) {
+                    numConfigs++;
+                    int index = side.add(c, i);
+                    int meet = index == -1 ? -1 : other.indexOf(c);
+                    if (meet != -1) {
+                        int length = side.depth(index) + other.depth(meet);
+                        if (length < bestLength) {
+                            bestLength = length;
+                            forwardMeet = forwards ? index : meet;
+                            backwardMeet = forwards ? meet : index;
+                        }
+                    }
+                }
+            }
+            if (forwards) {
+                forwardStart = levelEnd;
+            } else {
+                backwardStart = levelEnd;
+            }
+        }
+        uniqueConfigs = forward.size() + backward.size();
+        searchDone();
+        if (forwardMeet == -1) {
+            return new LinkedList<>();
+        }
+        LinkedList<Configuration> path = forward.pathTo(forwardMeet);
+        for (int i = backward.parent(backwardMeet); i != -1; i = backward.parent(i)) {
+            path.add(backward.get(i));
+        }
+        return path;
+    }
+}
@@ -0,0 +1,134 @@
+package puzzles.common.solver;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Visited table for ParallelSearch that many threads can claim configurations in at once. Each configuration
+ * keeps the smallest claim made for it as a primitive long, in an open addressing table whose slots are filled
+ * with compare and set, so nothing is locked and no object is allocated per configuration the way a
+ * ConcurrentHashMap would. The table only grows between levels, through ensureCapacity, when no thread is
+ * claiming.
+ */
+final class ClaimTable {
+    /** claim of a slot nothing has claimed yet, larger than any real claim */
+    private static final long UNCLAIMED = Long.MAX_VALUE;
+
+    /** the configurations, null if the slot is empty */
+    private AtomicReferenceArray<Configuration> keys;
+    /** smallest claim made for the configuration in each slot */
+    private AtomicLongArray claims;
+    /** number of configurations in the table */
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * creates a table presized to hold the expected number of configurations without growing
+     * @param expected number of configurations expected to be added
+     */
+    ClaimTable(int expected) {
+        allocate(Integer.highestOneBit(Math.max(16, expected) - 1) << 2); // at least twice the capacity
+    }
+
+    /**
+     * replaces the slots with empty ones
+     * @param slots number of slots, a power of two
+     */
+    private void allocate(int slots) {
+        keys = new AtomicReferenceArray<>(slots);
+        claims = new AtomicLongArray(slots);
+        for (int i = 0; i < slots; i++) {
+            claims.set(i, UNCLAIMED);
+        }
+    }
+
+    /**
+     * finds the slot a configuration is in, adding it to an empty slot if it isn't in the table
+     * @param config configuration to find
+     * @return int slot
+     */
+    private int slot(Configuration config) {
+        int mask = keys.length() - 1;
+        int slot = StateTable.mix(config.hashCode()) & mask;
+        while (true) {
+            Configuration key = keys.get(slot);
+            if (key == null) {
+                if (keys.compareAndSet(slot, null, config)) {
+                    size.incrementAndGet();
+                    return slot;
+                }
+                key = keys.get(slot);
+            }
+            if (key.equals(config)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * claims a configuration, keeping the smaller claim if it was already claimed. Safe to call from any thread
+     * @param config configuration to claim
+     * @param claim the claim, smaller claims win
+     */
+    void claim(Configuration config, long claim) {
+        int slot = slot(config);
+        long current;
+        while ((current = claims.get(slot)) > claim && !claims.compareAndSet(slot, current, claim)) {
+            // another thread changed the claim, look again
+        }
+    }
+
+    /**
+     * gets the smallest claim made for a configuration, which has to be in the table
+     * @param config configuration to look up
+     * @return long claim
+     */
+    long get(Configuration config) {
+        return claims.get(slot(config));
+    }
+
+    /**
+     * sets the claim of a configuration that is in the table
+     * @param config configuration to set
+     * @param claim the new claim
+     */
+    void set(Configuration config, long claim) {
+        claims.set(slot(config), claim);
+    }
+
+    /**
+     * makes sure more configurations can be added while keeping the slots at most half full. Only call while no
+     * thread is claiming
+     * @param extra number of configurations that might be added
+     */
+    void ensureCapacity(int extra) {
+        long needed = ((long) size.get() + extra) << 1;
+        if (needed <= keys.length()) {
+            return;
+        }
+        AtomicReferenceArray<Configuration> oldKeys = keys;
+        AtomicLongArray oldClaims = claims;
+        allocate((int) Math.min(Long.highestOneBit(needed - 1) << 1, 1 << 30));
+        for (int i = 0; i < oldKeys.length(); i++) {
+            Configuration key = oldKeys.get(i);
+            if (key != null) {
+                int mask = keys.length() - 1;
+                int slot = StateTable.mix(key.hashCode()) & mask;
+                while (keys.get(slot) != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys.set(slot, key);
+                claims.set(slot, oldClaims.get(i));
+            }
+        }
+    }
+
+    /**
+     * returns the number of configurations in the table
+     * @return int
+     */
+    int size() {
+        return size.get();
+    }
+}
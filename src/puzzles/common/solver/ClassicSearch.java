@@ -0,0 +1,61 @@
+package puzzles.common.solver;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedList;
+
+/**
+ * The original breadth first search, using a LinkedList as the queue and a HashMap as the predecessor map
+ */
+class ClassicSearch extends Search {
+    /** Hashmap of Configs to build the predecessor map*/
+    private final HashMap<Configuration, Configuration> predecessorMap = new HashMap<>();
+    /** LinkedList of configs that represents the queue*/
+    private final LinkedList<Configuration> queue = new LinkedList<>();
+
+    @Override
+    LinkedList<Configuration> solve(Configuration configuration) {
+        queue.add(configuration);
+        predecessorMap.put(configuration, null);
+        Configuration next = queue.remove(0);
+        // configurations left to expand in the level next is in, the rest of the level is still in the queue
+        int levelLeft = 0;
+        //  BUILDING THE PREDECESSOR MAP
+        while (!next.isSolution()) {
+            checkpoint();
+            if (levelLeft == 0) {
+                levelLeft = queue.size() + 1;
+                levelReached(predecessorMap.size(), levelLeft, Double.NaN);
+            }
+            levelLeft--;
+            Collection<Configuration> neighbors = next.getNeighbors();
+            numConfigs += neighbors.size();
+            for (Configuration c : neighbors) {
+                if (!predecessorMap.containsKey(c)) {
+                    queue.add(c);
+                    predecessorMap.put(c, next);
+                }
+            }
+            if (queue.isEmpty()) { // if there is no solution
+                uniqueConfigs = predecessorMap.size();
+                searchDone();
+                return new LinkedList<>();
+            } else { // there stuff in the queue so there might be a solution
+                next = queue.remove(0);
+            }
+        }
+        uniqueConfigs = predecessorMap.size();
+        searchDone();
+        //
+        //  GOES BACK THROUGH THE PREDECESSOR MAP TO FIND THE SHORTEST PATH
+        //
+        Configuration step = next;
+        LinkedList<Configuration> path = new LinkedList<>();
+        while (predecessorMap.get(step) != null) {
+            path.add(0, step);
+            step = predecessorMap.get(step);
+        }
+        path.add(0, step);
+        return path;
+    }
+}
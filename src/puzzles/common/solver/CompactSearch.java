@@ -0,0 +1,66 @@
+package puzzles.common.solver;
+
+import java.util.LinkedList;
+
+/**
+ * The same breadth first search as FrontierSearch, but visited configurations are kept encoded in an
+ * EncodedStateTable and only unpacked when they are expanded or end up on the path. Configurations that are not
+ * Encodable are solved with a plain FrontierSearch.
+ */
+class CompactSearch extends Search {
+    /** every configuration visited so far */
+    private EncodedStateTable table;
+    /** scratch space neighbors are encoded into */
+    private long[] key;
+    /** index of the configuration being expanded */
+    private int head;
+    /** index of the first solution found, -1 if none has been */
+    private int goal = -1;
+
+    @Override
+    LinkedList<Configuration> solve(Configuration start) {
+        if (!(start instanceof Encodable template)) {
+            return delegate(new FrontierSearch(), start);
+        }
+        int width = template.getEncodedWidth();
+        table = new EncodedStateTable(width, FrontierSearch.INITIAL_CAPACITY);
+        key = new long[width];
+        template.encode(key, 0);
+        table.add(key, -1);
+        if (start.isSolution()) {
+            goal = 0;
+        }
+        // expand until the first solution in the frontier is reached, like the classic search
+        int levelEnd = 0;
+        for (head = 0; goal == -1 ? head < table.size() : head < goal; head++) {
+            checkpoint();
+            if (head == levelEnd) {
+                levelEnd = table.size();
+                levelReached(levelEnd, levelEnd - head, table.loadFactor());
+            }
+            table.get(template, head).forEachNeighbor(this::visit);
+        }
+        uniqueConfigs = table.size();
+        searchDone();
+        LinkedList<Configuration> path = new LinkedList<>();
+        for (int i = goal; i != -1; i = table.parent(i)) {
+            path.addFirst(table.get(template, i));
+        }
+        return path;
+    }
+
+    /**
+     * adds a neighbor of the configuration being expanded to the table, if it hasn't been visited
+     * @param neighbor neighbor to add
+     * @return true, to visit every neighbor
+     */
+    private boolean visit(Configuration neighbor) {
+        numConfigs++;
+        ((Encodable) neighbor).encode(key, 0);
+        int index = table.add(key, head);
+        if (goal == -1 && index != -1 && neighbor.isSolution()) {
+            goal = index;
+        }
+        return true;
+    }
+}
@@ -8,4 +8,28 @@ public interface Configuration {
     boolean equals(Object other);
     int hashCode();
     String toString();
+
+    /**
+     * the size of the puzzle, only used to describe it in diagnostics like flight recordings
+     * @return int - number of squares on the board, or the nearest thing the puzzle has, 0 if it has none
+     */
+    default int getBoardSize() {
+        return 0;
+    }
+
+    /**
+     * hands each neighbor to the visitor as it is generated, in the same order as getNeighbors(), without
+     * building a collection of them. Configurations should override this and make getNeighbors() collect from
+     * it; the default just walks getNeighbors().
+     * @param visitor receives each neighbor, and can stop the rest from being generated
+     * @return true if every neighbor was visited, false if the visitor stopped early
+     */
+    default boolean forEachNeighbor(NeighborVisitor visitor) {
+        for (Configuration neighbor : getNeighbors()) {
+            if (!visitor.visit(neighbor)) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
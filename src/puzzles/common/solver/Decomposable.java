@@ -0,0 +1,25 @@
+package puzzles.common.solver;
+
+import java.util.List;
+
+/**
+ * A Configuration made of independent components, where every move changes exactly one component and what moves
+ * a component has doesn't depend on the others, and which is a solution exactly when every component is. The
+ * shortest path is then the shortest paths of the components one after another, so the Solver can solve each
+ * component on its own instead of searching the product of all of them.
+ */
+public interface Decomposable extends Configuration {
+    /**
+     * splits this configuration into its components
+     * @return List of each component as a Configuration of its own, or null if this configuration can't be split
+     */
+    List<Configuration> getComponents();
+
+    /**
+     * replaces one component of this configuration
+     * @param index index of the component in getComponents()
+     * @param component a configuration of that component, like one on its path to a solution
+     * @return Configuration with the component replaced and every other component the same
+     */
+    Configuration withComponent(int index, Configuration component);
+}
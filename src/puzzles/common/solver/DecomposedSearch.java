@@ -0,0 +1,54 @@
+package puzzles.common.solver;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Solves a Decomposable configuration one component at a time, each with its own FrontierSearch, and puts the
+ * component paths together by making every move of the first component, then every move of the second, and so
+ * on. The search space is then the sum of the components' instead of their product. The components make up one
+ * search phase, with their levels numbered one after the other, as if they were a single search. Configurations
+ * that are not Decomposable, or can't be split, are solved with a plain FrontierSearch.
+ */
+class DecomposedSearch extends Search {
+    @Override
+    LinkedList<Configuration> solve(Configuration start) {
+        List<Configuration> components = start instanceof Decomposable decomposable
+                ? decomposable.getComponents() : null;
+        if (components == null) {
+            return delegate(new FrontierSearch(), start);
+        }
+        List<LinkedList<Configuration>> paths = new ArrayList<>(components.size());
+        // every component's search counts its own start, which is the one start counted here
+        int generated = 1;
+        int unique = 1;
+        for (Configuration component : components) {
+            LinkedList<Configuration> path = delegatePart(new FrontierSearch(), component);
+            generated += numConfigs - 1;
+            unique += uniqueConfigs - 1;
+            if (path.isEmpty()) {
+                numConfigs = generated;
+                uniqueConfigs = unique;
+                searchDone();
+                return path;
+            }
+            paths.add(path);
+        }
+        numConfigs = generated;
+        uniqueConfigs = unique;
+        searchDone();
+        LinkedList<Configuration> path = new LinkedList<>();
+        Decomposable step = (Decomposable) start;
+        path.add(step);
+        for (int i = 0; i < paths.size(); i++) {
+            LinkedList<Configuration> moves = paths.get(i);
+            moves.removeFirst();
+            for (Configuration component : moves) {
+                step = (Decomposable) step.withComponent(i, component);
+                path.add(step);
+            }
+        }
+        return path;
+    }
+}
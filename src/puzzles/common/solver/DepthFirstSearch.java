@@ -0,0 +1,138 @@
+package puzzles.common.solver;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+
+/**
+ * Depth first search that returns the first solution it finds. Meant for puzzles where every move removes a
+ * piece, like Hoppers and Chess, where every solution takes the same number of moves and so the first one is
+ * also a shortest one. Only the current path is kept, plus a fixed size transposition table of configurations
+ * that are already known to be dead ends. The table is direct mapped and a new dead end replaces whatever was
+ * in its slot, so memory stays bounded no matter how big the puzzle is. The path is walked with an explicit
+ * stack rather than by recursion, so puzzles with long or cyclic paths, like Strings and Clock, can't overflow
+ * the thread's stack.
+ *
+ * In puzzles that can undo moves, a neighbor already on the path is skipped. A configuration whose search skipped
+ * something above it on the path that way isn't a dead end on its own, but the configurations above it are still
+ * being searched, so it never needs searching again either. Those configurations are kept in a set of their own,
+ * which isn't bounded, so puzzles full of cycles are searched one configuration at a time rather than one path at a
+ * time, and always finish. Puzzles that can't undo moves never add to it.
+ */
+class DepthFirstSearch extends Search {
+    /**
+     * A configuration on the path and how far its search has got
+     */
+    private static final class Frame {
+        /** the configuration */
+        final Configuration configuration;
+        /** its neighbors not searched yet */
+        final Iterator<Configuration> neighbors;
+        /** its slot in the transposition table, -1 for the start, which is never remembered */
+        final int slot;
+        /** its depth on the path */
+        final int depth;
+        /** the shallowest depth of a configuration on the path that was skipped below it */
+        int low = Integer.MAX_VALUE;
+
+        /**
+         * starts searching a configuration
+         * @param configuration the configuration
+         * @param slot its slot in the transposition table, -1 for the start
+         * @param depth its depth on the path
+         */
+        Frame(Configuration configuration, int slot, int depth) {
+            this.configuration = configuration;
+            this.neighbors = configuration.getNeighbors().iterator();
+            this.slot = slot;
+            this.depth = depth;
+        }
+    }
+
+    /** configurations known to have no solution below them, indexed by mixed hash code */
+    private final Configuration[] deadEnds;
+    /** the path currently being searched */
+    private final LinkedList<Configuration> path = new LinkedList<>();
+    /** the depth of each configuration on the current path, so puzzles that can undo moves don't loop forever */
+    private final HashMap<Configuration, Integer> onPath = new HashMap<>();
+    /** configurations searched that skipped something above them on the path, so are not in deadEnds */
+    private final HashSet<Configuration> closed = new HashSet<>();
+
+    /**
+     * creates a depth first search
+     * @param tableSize number of slots in the transposition table, rounded up to a power of two
+     */
+    DepthFirstSearch(int tableSize) {
+        this.deadEnds = new Configuration[Integer.highestOneBit(Math.max(1, tableSize - 1)) << 1];
+    }
+
+    @Override
+    LinkedList<Configuration> solve(Configuration start) {
+        path.add(start);
+        onPath.put(start, 0);
+        if (start.isSolution()) {
+            return path;
+        }
+        checkpoint();
+        uniqueConfigs++;
+        ArrayDeque<Frame> stack = new ArrayDeque<>();
+        stack.push(new Frame(start, -1, 0));
+        while (!stack.isEmpty()) {
+            Frame top = stack.peek();
+            if (!top.neighbors.hasNext()) {
+                backtrack(stack);
+                continue;
+            }
+            Configuration neighbor = top.neighbors.next();
+            numConfigs++;
+            int slot = StateTable.mix(neighbor.hashCode()) & (deadEnds.length - 1);
+            Configuration deadEnd = deadEnds[slot];
+            if (deadEnd != null && deadEnd.equals(neighbor) || closed.contains(neighbor)) {
+                continue;
+            }
+            Integer depth = onPath.putIfAbsent(neighbor, path.size());
+            if (depth != null) {
+                top.low = Math.min(top.low, depth);
+                continue;
+            }
+            path.add(neighbor);
+            if (neighbor.isSolution()) {
+                return path;
+            }
+            checkpoint();
+            uniqueConfigs++;
+            stack.push(new Frame(neighbor, slot, path.size() - 1));
+        }
+        path.clear();
+        return path;
+    }
+
+    /**
+     * takes the last configuration off the path once all its neighbors have been searched, remembering it as a
+     * dead end, or in closed if its search skipped a configuration above it on the path
+     * @param stack the frames of the path
+     */
+    private void backtrack(ArrayDeque<Frame> stack) {
+        Frame done = stack.pop();
+        path.removeLast();
+        onPath.remove(done.configuration);
+        if (done.low >= done.depth) {
+            if (done.slot >= 0) {
+                deadEnds[done.slot] = done.configuration;
+            }
+        } else {
+            closed.add(done.configuration);
+        }
+        Frame parent = stack.peek();
+        if (parent != null && done.low < parent.low) {
+            parent.low = done.low;
+        }
+    }
+
+    @Override
+    protected int depth() {
+        return path.size() - 1;
+    }
+}
@@ -0,0 +1,38 @@
+package puzzles.common.solver;
+
+/**
+ * A Configuration that can be packed into a fixed number of longs and unpacked again. Every configuration of
+ * the same puzzle must use the same number of longs, and two configurations must encode to the same longs
+ * exactly when they are equal. Lets the Solver store visited configurations as primitives instead of objects.
+ */
+public interface Encodable extends Configuration {
+    /**
+     * gets the number of longs every configuration of this puzzle is encoded into
+     * @return int - number of longs, at least 1
+     */
+    int getEncodedWidth();
+
+    /**
+     * packs this configuration into getEncodedWidth() longs
+     * @param words array to write the encoding into
+     * @param offset index of the first long to write
+     */
+    void encode(long[] words, int offset);
+
+    /**
+     * unpacks a configuration of the same puzzle as this one
+     * @param words array holding the encoding
+     * @param offset index of the first long of the encoding
+     * @return Configuration that was encoded
+     */
+    Configuration decode(long[] words, int offset);
+
+    /**
+     * describes what the configurations of this puzzle share that isn't in the encoding or the printed
+     * configuration, like the goal, so the same configuration of two different puzzles can be told apart
+     * @return String - the same for every configuration of the puzzle, empty if there is nothing more to say
+     */
+    default String describePuzzle() {
+        return "";
+    }
+}
@@ -0,0 +1,182 @@
+package puzzles.common.solver;
+
+import java.util.Arrays;
+
+/**
+ * Append only table of visited configurations stored as their Encodable encoding. Works like StateTable, but
+ * each configuration costs a few longs and a parent index instead of a whole object graph, and nothing is
+ * allocated per configuration at all. Tables that never need a path back to the start can leave the parent
+ * indexes out.
+ */
+final class EncodedStateTable {
+    /** number of longs in each encoding */
+    private final int width;
+    /** the encodings, width longs each, in the order they were added */
+    private long[] words;
+    /** index of the configuration each configuration was reached from, -1 for the start, null if not kept */
+    private int[] parents;
+    /** cached hashes of the encodings */
+    private int[] hashes;
+    /** open addressing slots holding index+1 of a configuration, 0 if the slot is empty */
+    private int[] slots;
+    /** number of configurations in the table */
+    private int size;
+
+    /**
+     * creates a table presized to hold the expected number of configurations without growing
+     * @param width number of longs in each encoding
+     * @param expected number of configurations expected to be added
+     */
+    EncodedStateTable(int width, int expected) {
+        this(width, expected, true);
+    }
+
+    /**
+     * creates a table presized to hold the expected number of configurations without growing
+     * @param width number of longs in each encoding
+     * @param expected number of configurations expected to be added
+     * @param keepParents whether to keep the index each configuration was reached from
+     */
+    EncodedStateTable(int width, int expected, boolean keepParents) {
+        int capacity = Math.max(16, expected);
+        this.width = width;
+        words = new long[capacity * width];
+        parents = keepParents ? new int[capacity] : null;
+        hashes = new int[capacity];
+        slots = new int[Integer.highestOneBit(capacity - 1) << 2]; // at least twice the capacity
+    }
+
+    /**
+     * hashes an encoding
+     * @param key array holding the encoding
+     * @param offset index of the first long of the encoding
+     * @param width number of longs in the encoding
+     * @return int hash
+     */
+    static int hash(long[] key, int offset, int width) {
+        long hash = 0;
+        for (int i = offset; i < offset + width; i++) {
+            hash = (hash ^ key[i]) * 0x9E3779B97F4A7C15L;
+            hash ^= hash >>> 29;
+        }
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    /**
+     * checks if the encoding at the given index is the same as the key
+     * @param index index of a configuration in the table
+     * @param key array holding the encoding
+     * @return boolean
+     */
+    private boolean matches(int index, long[] key) {
+        return Arrays.equals(words, index * width, index * width + width, key, 0, width);
+    }
+
+    /**
+     * finds the slot the key is in, or the empty slot it would go in
+     * @param key array holding the encoding
+     * @param hash hash of the key
+     * @return int slot
+     */
+    private int find(long[] key, int hash) {
+        int mask = slots.length - 1;
+        int slot = StateTable.mix(hash) & mask;
+        int entry;
+        while ((entry = slots[slot]) != 0 && !(hashes[entry - 1] == hash && matches(entry - 1, key))) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * adds an encoding to the table if it is not already present
+     * @param key array holding the encoding in its first width longs
+     * @param parent index of the configuration it was reached from, -1 if none, ignored if parents aren't kept
+     * @return the index of the added configuration, or -1 if it was already in the table
+     */
+    int add(long[] key, int parent) {
+        int hash = hash(key, 0, width);
+        int slot = find(key, hash);
+        if (slots[slot] != 0) {
+            return -1;
+        }
+        if (size == hashes.length) {
+            int capacity = size << 1;
+            words = Arrays.copyOf(words, capacity * width);
+            if (parents != null) {
+                parents = Arrays.copyOf(parents, capacity);
+            }
+            hashes = Arrays.copyOf(hashes, capacity);
+        }
+        int index = size++;
+        System.arraycopy(key, 0, words, index * width, width);
+        if (parents != null) {
+            parents[index] = parent;
+        }
+        hashes[index] = hash;
+        slots[slot] = index + 1;
+        if (size << 1 > slots.length) { // keep the slots at most half full
+            rehash();
+        }
+        return index;
+    }
+
+    /**
+     * finds the index of an encoding in the table
+     * @param key array holding the encoding in its first width longs
+     * @return the index of the configuration, or -1 if it is not in the table
+     */
+    int indexOf(long[] key) {
+        return slots[find(key, hash(key, 0, width))] - 1;
+    }
+
+    /**
+     * doubles the number of slots and reinserts every encoding using its cached hash
+     */
+    private void rehash() {
+        slots = new int[slots.length << 1];
+        int mask = slots.length - 1;
+        for (int index = 0; index < size; index++) {
+            int slot = StateTable.mix(hashes[index]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = index + 1;
+        }
+    }
+
+    /**
+     * unpacks the configuration at the given index
+     * @param template any configuration of the same puzzle
+     * @param index index of the configuration
+     * @return Configuration
+     */
+    Configuration get(Encodable template, int index) {
+        return template.decode(words, index * width);
+    }
+
+    /**
+     * gets the index of the configuration the given configuration was reached from, if parents are kept
+     * @param index index of the configuration
+     * @return int parent index, -1 for the start configuration
+     */
+    int parent(int index) {
+        return parents[index];
+    }
+
+    /**
+     * returns the number of configurations in the table
+     * @return int
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * returns the fraction of hash slots currently in use
+     * @return double between 0 and 1
+     */
+    double loadFactor() {
+        return (double) size / slots.length;
+    }
+}
@@ -0,0 +1,57 @@
+package puzzles.common.solver;
+
+import java.util.LinkedList;
+
+/**
+ * Breadth first search that keeps every visited configuration in a StateTable. Since configurations are added
+ * to the table in breadth first order, the frontier is just the range of the table that has not been expanded
+ * yet, so there is no separate queue. Configurations are tested as a solution once, when they are generated,
+ * and the search stops as soon as it reaches the first solution in the frontier. This expands exactly the same
+ * configurations as the classic search, so the path and config counts are the same.
+ */
+class FrontierSearch extends Search {
+    /** number of configurations the visited table is sized for up front */
+    static final int INITIAL_CAPACITY = 1 << 14;
+
+    /** every configuration visited so far */
+    private final StateTable table = new StateTable(INITIAL_CAPACITY);
+    /** index of the configuration being expanded */
+    private int head;
+    /** index of the first solution found, -1 if none has been */
+    private int goal = -1;
+
+    @Override
+    LinkedList<Configuration> solve(Configuration start) {
+        table.add(start, -1);
+        if (start.isSolution()) {
+            goal = 0;
+        }
+        // expand until the first solution in the frontier is reached, like the classic search
+        int levelEnd = 0;
+        for (head = 0; goal == -1 ? head < table.size() : head < goal; head++) {
+            checkpoint();
+            if (head == levelEnd) {
+                levelEnd = table.size();
+                levelReached(levelEnd, levelEnd - head, table.loadFactor());
+            }
+            table.get(head).forEachNeighbor(this::visit);
+        }
+        uniqueConfigs = table.size();
+        searchDone();
+        return goal == -1 ? new LinkedList<>() : table.pathTo(goal);
+    }
+
+    /**
+     * adds a neighbor of the configuration being expanded to the table, if it hasn't been visited
+     * @param neighbor neighbor to add
+     * @return true, to visit every neighbor
+     */
+    private boolean visit(Configuration neighbor) {
+        numConfigs++;
+        int index = table.add(neighbor, head);
+        if (goal == -1 && index != -1 && neighbor.isSolution()) {
+            goal = index;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,19 @@
+package puzzles.common.solver;
+
+/**
+ * Estimates how many moves a configuration is from a solution. Used by the best first searches to expand the
+ * most promising configurations first. To still find a shortest path the estimate must be admissible, meaning
+ * it never overestimates the real number of moves.
+ */
+@FunctionalInterface
+public interface Heuristic {
+    /** a heuristic that knows nothing, turns A* into a breadth first search */
+    Heuristic NONE = configuration -> 0;
+
+    /**
+     * estimates the number of moves from the configuration to a solution
+     * @param configuration configuration to estimate
+     * @return int - estimated number of moves, never more than the real number
+     */
+    int estimate(Configuration configuration);
+}
@@ -0,0 +1,103 @@
+package puzzles.common.solver;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+
+/**
+ * Iterative deepening A*. Runs depth first searches that give up on a branch once moves taken plus the
+ * heuristic's estimate passes a bound, raising the bound to the smallest value that was cut off until a
+ * solution is found. Each iteration remembers the fewest moves it has reached every configuration in, and only
+ * searches below a configuration again if it is reached in fewer, so an iteration never walks the same part of
+ * the puzzle twice, even in puzzles that can undo moves. Once an iteration has expanded every configuration it
+ * cut off somewhere else, it has expanded everything reachable, so if it found no solution the puzzle has none and
+ * the search gives up rather than raising the bound forever. The unique config count is the number of
+ * configurations expanded by the final iteration.
+ */
+class IdaStarSearch extends Search {
+    /** returned by search when a solution was found */
+    private static final int FOUND = -1;
+
+    /** the estimate of moves left */
+    private final Heuristic heuristic;
+    /** the path currently being searched */
+    private final LinkedList<Configuration> path = new LinkedList<>();
+    /** the fewest moves each configuration has been reached in during the current iteration */
+    private final HashMap<Configuration, Integer> reached = new HashMap<>();
+    /** configurations expanded in the current iteration */
+    private final HashSet<Configuration> expanded = new HashSet<>();
+    /** configurations cut off by the bound in the current iteration */
+    private final HashSet<Configuration> cutOff = new HashSet<>();
+
+    /**
+     * creates an IDA* search
+     * @param heuristic the estimate of moves left
+     */
+    IdaStarSearch(Heuristic heuristic) {
+        this.heuristic = heuristic;
+    }
+
+    @Override
+    LinkedList<Configuration> solve(Configuration start) {
+        path.add(start);
+        int bound = heuristic.estimate(start);
+        while (true) {
+            expanded.clear();
+            cutOff.clear();
+            reached.clear();
+            reached.put(start, 0);
+            int result = search(0, bound);
+            uniqueConfigs = expanded.size();
+            if (result == FOUND) {
+                return new LinkedList<>(path);
+            } else if (expanded.containsAll(cutOff)) {
+                return new LinkedList<>();
+            }
+            bound = result;
+        }
+    }
+
+    @Override
+    protected int depth() {
+        return path.size() - 1;
+    }
+
+    /**
+     * depth first search below the last configuration on the path
+     * @param moves number of moves taken to reach the last configuration on the path
+     * @param bound largest moves taken plus estimate to search
+     * @return FOUND if the path now ends in a solution, otherwise the smallest moves taken plus estimate that was
+     * over the bound, or Integer.MAX_VALUE if nothing was
+     */
+    private int search(int moves, int bound) {
+        Configuration next = path.getLast();
+        int estimate = moves + heuristic.estimate(next);
+        if (estimate > bound) {
+            cutOff.add(next);
+            return estimate;
+        }
+        if (next.isSolution()) {
+            return FOUND;
+        }
+        checkpoint();
+        expanded.add(next);
+        int[] min = {Integer.MAX_VALUE};
+        next.forEachNeighbor(c -> {
+            numConfigs++;
+            Integer fewest = reached.get(c);
+            if (fewest == null || moves + 1 < fewest) {
+                reached.put(c, moves + 1);
+                path.add(c);
+                int result = search(moves + 1, bound);
+                if (result == FOUND) {
+                    min[0] = FOUND;
+                    return false;
+                }
+                min[0] = Math.min(min[0], result);
+                path.removeLast();
+            }
+            return true;
+        });
+        return min[0];
+    }
+}
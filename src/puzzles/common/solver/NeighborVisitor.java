@@ -0,0 +1,14 @@
+package puzzles.common.solver;
+
+/**
+ * Receives the neighbors of a configuration one at a time from Configuration.forEachNeighbor
+ */
+@FunctionalInterface
+public interface NeighborVisitor {
+    /**
+     * handles one neighbor
+     * @param neighbor the next neighbor
+     * @return true to keep going, false to stop without generating the rest of the neighbors
+     */
+    boolean visit(Configuration neighbor);
+}
@@ -0,0 +1,138 @@
+package puzzles.common.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Level synchronous breadth first search that expands every configuration in a level in parallel on a
+ * ForkJoinPool. Each generated configuration claims its spot in a ClaimTable with a key made of the index of its
+ * parent in the level and its position in the parent's neighbors, and the smallest key wins. Configurations from
+ * earlier levels are settled with a key smaller than any claim, so they always win. That is exactly the spot a
+ * single threaded breadth first search would have added it at, so the levels, and therefore the returned path,
+ * are the same no matter how many threads are used. The worker threads only check for cancellation; progress is
+ * reported by the solving thread between levels. With only one thread to expand on, this is just a slower
+ * FrontierSearch, so the configuration is solved with one of those instead.
+ */
+class ParallelSearch extends Search {
+    /** bits of a claim key used for the position of a configuration in its parent's neighbors */
+    private static final int NEIGHBOR_BITS = 16;
+    /** claim key of configurations settled in an earlier level, smaller than any claim */
+    private static final long SETTLED = -1;
+
+    /** number of threads to expand each level with */
+    private final int parallelism;
+
+    /**
+     * creates a parallel search
+     * @param parallelism number of threads to expand each level with
+     */
+    ParallelSearch(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * builds the key a configuration claims its spot in the visited table with
+     * @param parent index of its parent in the level being expanded
+     * @param neighbor position of the configuration in its parent's neighbors
+     * @return long key, smaller keys are earlier in breadth first order
+     */
+    private static long claim(int parent, int neighbor) {
+        return ((long) parent << NEIGHBOR_BITS) | neighbor;
+    }
+
+    @Override
+    LinkedList<Configuration> solve(Configuration start) {
+        if (Math.min(parallelism, Runtime.getRuntime().availableProcessors()) == 1) {
+            return delegate(new FrontierSearch(), start);
+        }
+        ClaimTable visited = new ClaimTable(FrontierSearch.INITIAL_CAPACITY);
+        ArrayList<Configuration[]> levels = new ArrayList<>();
+        ArrayList<int[]> parents = new ArrayList<>();
+        visited.claim(start, SETTLED);
+        levels.add(new Configuration[]{start});
+        parents.add(new int[]{-1});
+        int goal = start.isSolution() ? 0 : -1;
+        LongAdder generated = new LongAdder();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            while (goal == -1 && levels.get(levels.size() - 1).length > 0) {
+                Configuration[] frontier = levels.get(levels.size() - 1);
+                levelReached(visited.size(), frontier.length, Double.NaN);
+                // expand every configuration in the level
+                Configuration[][] expanded = new Configuration[frontier.length][];
+                pool.submit(() -> IntStream.range(0, frontier.length).parallel().forEach(i -> {
+                    checkCancelled();
+                    Collection<Configuration> neighbors = frontier[i].getNeighbors();
+                    Configuration[] found = neighbors.toArray(new Configuration[0]);
+                    if (found.length >= 1 << NEIGHBOR_BITS) {
+                        throw new IllegalStateException("Too many neighbors for a parallel search: " + found.length);
+                    }
+                    generated.add(found.length);
+                    expanded[i] = found;
+                })).join();
+                long count = generated.sumThenReset();
+                numConfigs += count;
+                progress();
+                // claim a spot for each neighbor, after making room for all of them
+                visited.ensureCapacity((int) Math.min(count, Integer.MAX_VALUE));
+                pool.submit(() -> IntStream.range(0, frontier.length).parallel().forEach(i -> {
+                    Configuration[] found = expanded[i];
+                    for (int j = 0; j < found.length; j++) {
+                        visited.claim(found[j], claim(i, j));
+                    }
+                })).join();
+                // keep only the neighbors that won their claim, settling them so later levels can't claim them
+                Configuration[][] kept = new Configuration[frontier.length][];
+                pool.submit(() -> IntStream.range(0, frontier.length).parallel().forEach(i -> {
+                    Configuration[] found = expanded[i];
+                    int won = 0;
+                    for (int j = 0; j < found.length; j++) {
+                        if (visited.get(found[j]) == claim(i, j)) {
+                            visited.set(found[j], SETTLED);
+                            found[won++] = found[j];
+                        }
+                    }
+                    kept[i] = Arrays.copyOf(found, won);
+                })).join();
+                int size = 0;
+                for (Configuration[] k : kept) {
+                    size += k.length;
+                }
+                Configuration[] next = new Configuration[size];
+                int[] nextParents = new int[size];
+                int index = 0;
+                for (int i = 0; i < kept.length; i++) {
+                    for (Configuration c : kept[i]) {
+                        nextParents[index] = i;
+                        next[index++] = c;
+                    }
+                }
+                levels.add(next);
+                parents.add(nextParents);
+                goal = pool.submit(() -> IntStream.range(0, next.length).parallel()
+                        .filter(i -> next[i].isSolution()).findFirst().orElse(-1)).join();
+            }
+        } catch (CancellationException e) {
+            checkCancelled(); // the pool rethrows a copy without the reason, so throw the search's own
+            throw e;
+        } finally {
+            pool.shutdown();
+        }
+        uniqueConfigs = visited.size();
+        searchDone();
+        LinkedList<Configuration> path = new LinkedList<>();
+        if (goal == -1) {
+            return path;
+        }
+        for (int level = levels.size() - 1, i = goal; level >= 0; i = parents.get(level--)[i]) {
+            path.addFirst(levels.get(level)[i]);
+        }
+        return path;
+    }
+}
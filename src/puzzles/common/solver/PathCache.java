@@ -0,0 +1,93 @@
+package puzzles.common.solver;
+
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Remembers solution paths that have already been found, so a configuration on one of them can be stepped towards
+ * its solution again without searching. Every configuration on a cached path maps to the one after it and to its
+ * distance from the end, and configurations known to have no solution are remembered as well.
+ */
+public class PathCache {
+    /**
+     * What is known about a configuration
+     * @param next the configuration after it on a solution path, null if it is a solution or has none
+     * @param distance moves left to the solution, -1 if there is no solution
+     */
+    private record Step(Configuration next, int distance) {}
+
+    /** every configuration the cache knows about */
+    private final HashMap<Configuration, Step> steps = new HashMap<>();
+
+    /**
+     * remembers every configuration on a solution path
+     * @param path path from a starting configuration to a solution, as returned by Solver.solve; an empty path
+     *             adds nothing
+     */
+    public void add(List<Configuration> path) {
+        int distance = path.size() - 1;
+        Configuration previous = null;
+        for (Configuration c : path) {
+            if (previous != null) {
+                steps.put(previous, new Step(c, distance--));
+            }
+            previous = c;
+        }
+        if (previous != null) {
+            steps.put(previous, new Step(null, 0));
+        }
+    }
+
+    /**
+     * remembers that a configuration has no solution
+     * @param configuration configuration that has no solution
+     */
+    public void addUnsolvable(Configuration configuration) {
+        steps.put(configuration, new Step(null, -1));
+    }
+
+    /**
+     * checks if the cache knows whether a configuration can be solved
+     * @param configuration configuration to look up
+     * @return true if it is on a cached path or known to have no solution
+     */
+    public boolean contains(Configuration configuration) {
+        return steps.containsKey(configuration);
+    }
+
+    /**
+     * gets the next configuration on the cached path from a configuration
+     * @param configuration configuration to look up
+     * @return the configuration one move closer to the solution, null if the configuration is a solution, has no
+     * solution, or isn't cached
+     */
+    public Configuration getNext(Configuration configuration) {
+        Step step = steps.get(configuration);
+        return step == null ? null : step.next();
+    }
+
+    /**
+     * gets the number of moves from a configuration to its solution
+     * @param configuration configuration to look up
+     * @return moves left, -1 if the configuration has no solution, -2 if it isn't cached
+     */
+    public int getDistance(Configuration configuration) {
+        Step step = steps.get(configuration);
+        return step == null ? -2 : step.distance();
+    }
+
+    /**
+     * the number of configurations the cache knows about
+     * @return int
+     */
+    public int size() {
+        return steps.size();
+    }
+
+    /**
+     * forgets everything, for when a different puzzle is loaded
+     */
+    public void clear() {
+        steps.clear();
+    }
+}
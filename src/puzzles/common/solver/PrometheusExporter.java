@@ -0,0 +1,117 @@
+package puzzles.common.solver;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * A SolverListener that keeps a text file of the latest metrics in the Prometheus exposition format, for a node
+ * exporter's textfile collector or anything else that reads it. The file is rewritten at every level and when
+ * the solve finishes, always by writing a new file and moving it into place, so it's never read half written.
+ * Every sample is labelled with the puzzle and the search mode.
+ */
+public class PrometheusExporter implements SolverListener {
+    /** system property naming the file the Hoppers and Chess programs export their metrics to */
+    public static final String FILE_PROPERTY = "puzzles.metrics.file";
+
+    /** file the metrics are written to */
+    private final Path file;
+    /** name of the puzzle being solved, for the puzzle label */
+    private final String puzzle;
+    /** set once writing has failed, so the failure is only reported once */
+    private boolean failed;
+
+    /**
+     * creates an exporter
+     * @param file file to write the metrics to, replaced every time
+     * @param puzzle name of the puzzle being solved, like its file name
+     */
+    public PrometheusExporter(Path file, String puzzle) {
+        this.file = file;
+        this.puzzle = puzzle;
+    }
+
+    @Override
+    public void levelReached(SolverMetrics metrics) {
+        write(metrics, true);
+    }
+
+    @Override
+    public void solveFinished(SolverMetrics metrics) {
+        write(metrics, false);
+    }
+
+    /**
+     * replaces the file with the given metrics. A failure to write is reported once on System.err and otherwise
+     * ignored, since the solve itself is fine
+     * @param metrics metrics to write
+     * @param running whether the solve is still going
+     */
+    private void write(SolverMetrics metrics, boolean running) {
+        String labels = "{puzzle=\"" + escape(puzzle) + "\",mode=\"" + metrics.mode() + "\"}";
+        StringBuilder text = new StringBuilder();
+        gauge(text, "solver_running", "1 while a solve is going, 0 once it's over", labels, running ? 1 : 0);
+        gauge(text, "solver_level", "levels the breadth first search has reached", labels, metrics.level());
+        gauge(text, "solver_frontier_size", "configurations in the level last reached", labels,
+                metrics.frontierSize());
+        gauge(text, "solver_generated_configs", "configurations generated, counting duplicates", labels,
+                metrics.numConfigs());
+        gauge(text, "solver_unique_configs", "different configurations visited", labels, metrics.uniqueConfigs());
+        gauge(text, "solver_states_per_second", "configurations generated per second", labels,
+                metrics.statesPerSecond());
+        gauge(text, "solver_table_load_factor", "fraction of the visited table's slots in use", labels,
+                metrics.loadFactor());
+        gauge(text, "solver_duplicate_ratio", "fraction of generated configurations already visited", labels,
+                metrics.duplicateRatio());
+        gauge(text, "solver_elapsed_seconds", "time since the solve started", labels,
+                metrics.elapsedNanos() / 1e9);
+        gauge(text, "solver_heap_bytes_per_state", "estimated heap used per visited configuration", labels,
+                metrics.heapBytesPerState());
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try {
+                Files.writeString(temp, text, StandardCharsets.UTF_8);
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            if (!failed) {
+                failed = true;
+                System.err.println("Could not export solver metrics to " + file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * adds one gauge with its help and type lines
+     * @param text text to add to
+     * @param name metric name
+     * @param help what it measures
+     * @param labels labels of the sample, with their braces
+     * @param value value of the sample
+     */
+    private static void gauge(StringBuilder text, String name, String help, String labels, double value) {
+        text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        text.append("# TYPE ").append(name).append(" gauge\n");
+        text.append(name).append(labels).append(' ');
+        if (value == Math.rint(value) && !Double.isInfinite(value)) {
+            text.append((long) value);
+        } else {
+            text.append(value);
+        }
+        text.append('\n');
+    }
+
+    /**
+     * escapes a label value the way the exposition format needs
+     * @param value label value
+     * @return String with backslashes, quotes and newlines escaped
+     */
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
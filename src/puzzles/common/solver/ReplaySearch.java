@@ -0,0 +1,69 @@
+package puzzles.common.solver;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+
+/**
+ * The same breadth first search as CompactSearch, but for configurations that are also Replayable. Besides its
+ * encoding, each visited configuration only records its parent's index and the id of the move from the parent.
+ * The path is rebuilt by replaying those moves from the start, so no configuration on it ever has to be decoded
+ * or kept. Configurations that are not both Encodable and Replayable are solved with a CompactSearch instead.
+ */
+class ReplaySearch extends Search {
+
+    @Override
+    LinkedList<Configuration> solve(Configuration start) {
+        if (!(start instanceof Encodable template) || !(start instanceof Replayable)) {
+            return delegate(new CompactSearch(), start);
+        }
+        int width = template.getEncodedWidth();
+        EncodedStateTable table = new EncodedStateTable(width, FrontierSearch.INITIAL_CAPACITY);
+        int[] moves = new int[FrontierSearch.INITIAL_CAPACITY];
+        long[] key = new long[width];
+        template.encode(key, 0);
+        table.add(key, -1);
+        int goal = start.isSolution() ? 0 : -1;
+        // expand until the first solution in the frontier is reached, like the classic search
+        int levelEnd = 0;
+        for (int head = 0; goal == -1 ? head < table.size() : head < goal; head++) {
+            checkpoint();
+            if (head == levelEnd) {
+                levelEnd = table.size();
+                levelReached(levelEnd, levelEnd - head, table.loadFactor());
+            }
+            Replayable next = (Replayable) table.get(template, head);
+            for (int move : next.getMoveIds()) {
+                numConfigs++;
+                Configuration c = next.applyMove(move);
+                ((Encodable) c).encode(key, 0);
+                int index = table.add(key, head);
+                if (index != -1) {
+                    if (index == moves.length) {
+                        moves = Arrays.copyOf(moves, moves.length << 1);
+                    }
+                    moves[index] = move;
+                    if (goal == -1 && c.isSolution()) {
+                        goal = index;
+                    }
+                }
+            }
+        }
+        uniqueConfigs = table.size();
+        searchDone();
+        LinkedList<Configuration> path = new LinkedList<>();
+        if (goal == -1) {
+            return path;
+        }
+        LinkedList<Integer> replay = new LinkedList<>();
+        for (int i = goal; table.parent(i) != -1; i = table.parent(i)) {
+            replay.addFirst(moves[i]);
+        }
+        Configuration step = start;
+        path.add(step);
+        for (int move : replay) {
+            step = ((Replayable) step).applyMove(move);
+            path.add(step);
+        }
+        return path;
+    }
+}
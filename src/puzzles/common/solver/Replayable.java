@@ -0,0 +1,21 @@
+package puzzles.common.solver;
+
+/**
+ * A Configuration whose moves can be named by small integer ids and made again later. Lets the Solver remember
+ * how it reached each configuration with a single int, and rebuild the path by replaying the moves from the
+ * start instead of keeping every configuration on it.
+ */
+public interface Replayable extends Configuration {
+    /**
+     * gets the ids of every move that can be made from this configuration
+     * @return int[] move ids, in the same order as getNeighbors()
+     */
+    int[] getMoveIds();
+
+    /**
+     * makes a move from this configuration
+     * @param move id of a move returned by getMoveIds()
+     * @return Configuration after the move
+     */
+    Configuration applyMove(int move);
+}
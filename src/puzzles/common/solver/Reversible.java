@@ -0,0 +1,21 @@
+package puzzles.common.solver;
+
+import java.util.Collection;
+
+/**
+ * A Configuration that knows the exact configuration it is trying to reach, and which configurations can move
+ * into it. Lets the Solver search backwards from the goal at the same time as it searches forwards from the start.
+ */
+public interface Reversible extends Configuration {
+    /**
+     * gets the configuration this puzzle is trying to reach
+     * @return the goal Configuration, or null if the goal is not a valid configuration of this puzzle
+     */
+    Configuration getGoal();
+
+    /**
+     * Returns a Collection of all configurations that have this configuration as one of their neighbors
+     * @return Collection<Configuration> all configurations that can move to this one
+     */
+    Collection<Configuration> getPredecessors();
+}
@@ -0,0 +1,247 @@
+package puzzles.common.solver;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * A single search strategy used by the Solver. A new Search is created for every call to Solver.solve
+ */
+abstract class Search {
+    /** expansions between looks at the clock to see if progress is due*/
+    private static final int PROGRESS_CHECK = 256;
+
+    /** the number of total configs created*/
+    protected int numConfigs = 1;
+    /** the number of unique configs generated, or expanded for searches that don't keep a visited table*/
+    protected int uniqueConfigs;
+    /** set when the search should give up, possibly from another thread*/
+    private volatile boolean cancelled;
+    /** System.nanoTime() the search has to finish by, 0 for no limit*/
+    private long deadline;
+    /** the search this one handed the configuration off to, if any*/
+    private volatile Search delegated;
+    /** search strategy the Solver was asked to use, reported to listeners*/
+    private SearchMode mode;
+    /** listeners to tell how the search is going, empty if there are none*/
+    private List<SolverListener> listeners = List.of();
+    /** System.nanoTime() the solve started at*/
+    private long startTime;
+    /** bytes of heap in use when the solve started*/
+    private long startHeap;
+    /** number of levels reached so far*/
+    private int level;
+    /** load factor of the visited table at the last level reached, NaN if there isn't one*/
+    private double loadFactor = Double.NaN;
+    /** different configurations visited as of the last level reached*/
+    private int visited;
+    /** thread that is solving, the only one progress is reported from*/
+    private Thread owner;
+    /** System.nanoTime() progress was last reported at*/
+    private long lastProgress;
+    /** expansions since the clock was last looked at*/
+    private int sinceProgress;
+    /** flight recorder events of the solve, null if the flight recorder isn't running*/
+    private SolveTrace trace;
+    /** whether this search only solves part of another search's configuration, which ends the search phase*/
+    private boolean part;
+
+    /**
+     * finds a path from the given configuration to a configuration that is a valid solution
+     * @param start starting configuration to solve
+     * @return LinkedList of Configurations from start to a solution, empty if there is no solution
+     */
+    abstract LinkedList<Configuration> solve(Configuration start);
+
+    /**
+     * solves with another search instead, for configurations this search can't handle
+     * @param search search to solve with
+     * @param start starting configuration to solve
+     * @return LinkedList of Configurations found by the other search
+     */
+    protected LinkedList<Configuration> delegate(Search search, Configuration start) {
+        search.deadline = deadline;
+        search.mode = mode;
+        search.listeners = listeners;
+        search.startTime = startTime;
+        search.startHeap = startHeap;
+        search.trace = trace;
+        search.owner = owner;
+        search.lastProgress = lastProgress;
+        delegated = search;
+        if (cancelled) {
+            search.cancel();
+        }
+        try {
+            return search.solve(start);
+        } finally {
+            numConfigs = search.numConfigs;
+            uniqueConfigs = search.uniqueConfigs;
+            level = search.level;
+            loadFactor = search.loadFactor;
+            visited = search.visited;
+            lastProgress = search.lastProgress;
+        }
+    }
+
+    /**
+     * solves one part of the configuration with another search, like delegate, except the other search carries on
+     * numbering levels from this search's instead of starting over, and leaves ending the search phase to this
+     * search, once every part is solved
+     * @param search search to solve the part with
+     * @param start starting configuration of the part
+     * @return LinkedList of Configurations found by the other search
+     */
+    protected LinkedList<Configuration> delegatePart(Search search, Configuration start) {
+        search.part = true;
+        search.level = level;
+        return delegate(search, start);
+    }
+
+    /**
+     * makes the search give up the next time it calls checkpoint, safe to call from any thread
+     */
+    void cancel() {
+        cancelled = true;
+        Search search = delegated;
+        if (search != null) {
+            search.cancel();
+        }
+    }
+
+    /**
+     * sets the time the search has to finish by
+     * @param deadline System.nanoTime() to give up after, 0 for no limit
+     */
+    void setDeadline(long deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * starts timing and tracing the search and sets who to tell how it's going
+     * @param start starting configuration
+     * @param mode search strategy the Solver was asked to use
+     * @param listeners listeners to tell, possibly empty
+     */
+    void start(Configuration start, SearchMode mode, List<SolverListener> listeners) {
+        this.mode = mode;
+        this.listeners = listeners;
+        this.startTime = System.nanoTime();
+        this.startHeap = usedHeap();
+        this.owner = Thread.currentThread();
+        this.lastProgress = startTime;
+        this.trace = SolveTrace.start(start, mode);
+    }
+
+    /**
+     * tells the listeners a breadth first search has reached another level
+     * @param visited different configurations visited so far
+     * @param frontier configurations in the level reached
+     * @param loadFactor load factor of the visited table, NaN if the search doesn't have a StateTable
+     */
+    protected void levelReached(int visited, int frontier, double loadFactor) {
+        this.loadFactor = loadFactor;
+        this.visited = visited;
+        if (!listeners.isEmpty()) {
+            SolverMetrics metrics = new SolverMetrics(mode, level, frontier, numConfigs, visited, loadFactor,
+                    System.nanoTime() - startTime, usedHeap() - startHeap);
+            for (SolverListener listener : listeners) {
+                listener.levelReached(metrics);
+            }
+        }
+        level++;
+    }
+
+    /**
+     * the depth of the configuration being expanded, for progress reports
+     * @return int - the depth of the level being expanded, by default
+     */
+    protected int depth() {
+        return Math.max(level - 1, 0);
+    }
+
+    /**
+     * tells the listeners how the search is going, if it's been PROGRESS_INTERVAL since they were last told and
+     * this is the solving thread. checkpoint calls this every so often; searches that expand on other threads
+     * call it themselves between levels instead
+     */
+    protected void progress() {
+        sinceProgress = 0;
+        if (listeners.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (now - lastProgress < SolverListener.PROGRESS_INTERVAL * 1_000_000 || Thread.currentThread() != owner) {
+            return;
+        }
+        lastProgress = now;
+        SolverMetrics metrics = new SolverMetrics(mode, depth(), 0, numConfigs, Math.max(uniqueConfigs, visited),
+                loadFactor, now - startTime, usedHeap() - startHeap);
+        for (SolverListener listener : listeners) {
+            listener.progress(metrics);
+        }
+    }
+
+    /**
+     * marks the end of the search phase, for searches that still have to rebuild the path afterwards. Called
+     * once uniqueConfigs has been set. Does nothing for a search solving a part, see delegatePart
+     */
+    protected void searchDone() {
+        if (trace != null && !part) {
+            trace.searchDone(numConfigs, uniqueConfigs);
+        }
+    }
+
+    /**
+     * ends tracing and sums up the whole search, once it's over
+     * @param pathLength configurations on the path found, 0 if there was none
+     * @param outcome "solved", "unsolvable", "cancelled" or "failed"
+     * @return SolverMetrics with a frontier size of 0
+     */
+    SolverMetrics finish(int pathLength, String outcome) {
+        if (trace != null) {
+            trace.finish(numConfigs, uniqueConfigs, pathLength, outcome);
+        }
+        return new SolverMetrics(mode, level, 0, numConfigs, uniqueConfigs, loadFactor,
+                System.nanoTime() - startTime, usedHeap() - startHeap);
+    }
+
+    /**
+     * the number of bytes of heap in use, including garbage that hasn't been collected
+     * @return long
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * gives up on the search if it has been cancelled or has run past its deadline. Searches call this once for
+     * every configuration they expand, which is also where expansions are sampled for the flight recorder and
+     * where listeners are told about progress. Only for the solving thread, other threads use checkCancelled
+     * @throws CancellationException if the search should give up
+     */
+    protected void checkpoint() {
+        if (trace != null) {
+            trace.expanding(numConfigs);
+        }
+        if (!listeners.isEmpty() && ++sinceProgress >= PROGRESS_CHECK) {
+            progress();
+        }
+        checkCancelled();
+    }
+
+    /**
+     * gives up on the search if it has been cancelled or has run past its deadline, without touching anything
+     * else, so it's safe to call from any thread the search expands on
+     * @throws CancellationException if the search should give up
+     */
+    protected void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Solve was cancelled");
+        }
+        if (deadline != 0 && System.nanoTime() - deadline > 0) {
+            throw new CancellationException("Solve ran past its time limit");
+        }
+    }
+}
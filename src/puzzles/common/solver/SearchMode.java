@@ -0,0 +1,30 @@
+package puzzles.common.solver;
+
+/**
+ * The different search strategies the Solver can use to find a solution
+ */
+public enum SearchMode {
+    /** the original breadth first search over a LinkedList queue and a HashMap of predecessors */
+    CLASSIC,
+    /** breadth first search over an array backed frontier and an open addressing visited table */
+    FRONTIER,
+    /** breadth first search from both the start and the goal of a Reversible configuration */
+    BIDIRECTIONAL,
+    /** level by level breadth first search that expands each level on every core */
+    PARALLEL,
+    /** A* search guided by the Solver's heuristic */
+    BEST_FIRST,
+    /** iterative deepening A* search guided by the Solver's heuristic, keeps the current path and the fewest moves
+     * each configuration was reached in by the current iteration */
+    ITERATIVE_DEEPENING,
+    /** depth first search that stops at the first solution, shortest only if every solution is the same length */
+    DEPTH_FIRST,
+    /** breadth first search that stores visited Encodable configurations as packed longs */
+    COMPACT,
+    /** compact breadth first search that rebuilds the path by replaying Replayable move ids from the start */
+    REPLAY,
+    /** breadth first search that visits one configuration per symmetry class of a Symmetric puzzle */
+    SYMMETRIC,
+    /** solves each component of a Decomposable configuration on its own, then puts their paths together */
+    DECOMPOSED
+}
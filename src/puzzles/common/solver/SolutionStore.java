@@ -0,0 +1,188 @@
+package puzzles.common.solver;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Keeps solutions on disk, so solving the same puzzle again, even after a restart, reads the answer back instead
+ * of searching. Each solution is its own file, named by a SHA-256 hash of the puzzle's class, the search mode, the
+ * starting board as printed and encoded, and the rest of what describes the puzzle, like its goal, so the same
+ * puzzle read from any file shares one entry. A file holds the search
+ * counts and every configuration on the path as its Encodable encoding, and is read back through a memory map.
+ * Puzzles that aren't Encodable are never stored. The version in a file only covers its layout, not how each
+ * puzzle encodes its configurations, so a path read back is checked move by move and thrown away if the encoding
+ * has changed since it was saved. Only solutions are kept: a puzzle with no solution has no path that could be
+ * checked, so it is always searched again.
+ */
+public class SolutionStore {
+    /** system property naming the directory solutions are kept in */
+    public static final String DIRECTORY_PROPERTY = "puzzles.cache.dir";
+    /** first int of every file, "PZSS" */
+    private static final int MAGIC = 0x505A5353;
+    /** layout of the files, not of the encodings in them, bumped whenever it changes so old files are ignored */
+    private static final int VERSION = 1;
+    /** bytes before the encoded path: magic, version, total configs, unique configs, path length and width */
+    private static final int HEADER = 6 * Integer.BYTES;
+
+    /**
+     * A solution read back from the store
+     * @param path path from the starting configuration to a solution, empty if there is no solution
+     * @param numConfigs total configurations the search that found it generated
+     * @param uniqueConfigs unique configurations the search that found it expanded
+     * @param cached whether it was read back from the store rather than just solved
+     */
+    public record Entry(LinkedList<Configuration> path, int numConfigs, int uniqueConfigs, boolean cached) {}
+
+    /** directory the solution files are kept in */
+    private final Path directory;
+
+    /**
+     * creates a store that keeps its files in a directory, which is made the first time a solution is saved
+     * @param directory directory to keep the files in
+     */
+    public SolutionStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * creates a store in the directory named by the puzzles.cache.dir system property. Solutions are only kept on
+     * disk when it is set
+     * @return SolutionStore, null if the property isn't set
+     */
+    public static SolutionStore getDefault() {
+        String directory = System.getProperty(DIRECTORY_PROPERTY);
+        return directory != null ? new SolutionStore(Path.of(directory)) : null;
+    }
+
+    /**
+     * reads back the solution saved for a starting configuration, if there is one
+     * @param start starting configuration
+     * @param mode search mode the solution was found with
+     * @return Entry, null if nothing was saved, the puzzle isn't Encodable, or the file can't be read or doesn't
+     * hold a path of moves from start to a solution
+     */
+    public Entry load(Configuration start, SearchMode mode) {
+        if (!(start instanceof Encodable template)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file(start, mode), StandardOpenOption.READ)) {
+            if (channel.size() < HEADER) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int width = template.getEncodedWidth();
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+            int numConfigs = buffer.getInt();
+            int uniqueConfigs = buffer.getInt();
+            int length = buffer.getInt();
+            if (buffer.getInt() != width || length < 0 || buffer.remaining() != (long) length * width * Long.BYTES) {
+                return null;
+            }
+            long[] words = new long[length * width];
+            buffer.asLongBuffer().get(words);
+            LinkedList<Configuration> path = new LinkedList<>();
+            for (int i = 0; i < length; i++) {
+                path.add(template.decode(words, i * width));
+            }
+            if (length == 0 || !isPath(start, path)) {
+                return null;
+            }
+            return new Entry(path, numConfigs, uniqueConfigs, true);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * checks a path read back is still a solution: it starts at start, every configuration is a neighbor of the one
+     * before it, and it ends at a solution
+     * @param start starting configuration
+     * @param path path that was read back, not empty
+     * @return boolean
+     */
+    private static boolean isPath(Configuration start, List<Configuration> path) {
+        Configuration previous = null;
+        for (Configuration c : path) {
+            if (previous == null ? !c.equals(start) : !previous.getNeighbors().contains(c)) {
+                return false;
+            }
+            previous = c;
+        }
+        return previous.isSolution();
+    }
+
+    /**
+     * saves the solution for a starting configuration, replacing any that was saved before. The file is written
+     * next to where it belongs and then moved into place, so a reader never sees half of one. Nothing is saved if
+     * there is no solution
+     * @param start starting configuration
+     * @param mode search mode the solution was found with
+     * @param path path from start to a solution, empty if there is no solution
+     * @param numConfigs total configurations the search generated
+     * @param uniqueConfigs unique configurations the search expanded
+     * @throws IOException if the file can't be written
+     */
+    public void save(Configuration start, SearchMode mode, List<Configuration> path, int numConfigs,
+                     int uniqueConfigs) throws IOException {
+        if (!(start instanceof Encodable template) || path.isEmpty()) {
+            return;
+        }
+        int width = template.getEncodedWidth();
+        long[] words = new long[path.size() * width];
+        int offset = 0;
+        for (Configuration c : path) {
+            ((Encodable) c).encode(words, offset);
+            offset += width;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER + words.length * Long.BYTES);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(numConfigs).putInt(uniqueConfigs).putInt(path.size())
+                .putInt(width);
+        buffer.asLongBuffer().put(words);
+        Files.createDirectories(directory);
+        Path file = file(start, mode);
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, buffer.array());
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * names the file a starting configuration's solution is kept in
+     * @param start starting configuration, Encodable
+     * @param mode search mode the solution was found with
+     * @return Path of the file, which may not exist
+     */
+    private Path file(Configuration start, SearchMode mode) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Every Java platform has SHA-256", e);
+        }
+        Encodable encodable = (Encodable) start;
+        long[] words = new long[encodable.getEncodedWidth()];
+        encodable.encode(words, 0);
+        String content = start.getClass().getName() + "\n" + mode + "\n" + start + "\n" + Arrays.toString(words)
+                + "\n" + encodable.describePuzzle();
+        byte[] hash = digest.digest(content.getBytes(StandardCharsets.UTF_8));
+        return directory.resolve(HexFormat.of().formatHex(hash) + ".sol");
+    }
+}
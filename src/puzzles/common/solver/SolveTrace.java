@@ -0,0 +1,201 @@
+package puzzles.common.solver;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The Java Flight Recorder events of one Solver.solve: the whole solve, its search phase, its path reconstruction
+ * phase, and a sample of single expansions. They show up next to the JVM's own GC and CPU events in a recording,
+ * e.g. one started with -XX:StartFlightRecording or jcmd JFR.start, so a slow hint can be lined up with what the
+ * JVM was doing. Loading the first event class starts up the flight recorder's internals, which takes a few
+ * hundred milliseconds, so solves are only traced once the flight recorder has been started; before that there is
+ * no trace at all. After that, expansions are only sampled one in SAMPLE, so tracing can stay on all the time.
+ */
+final class SolveTrace {
+    /** one expansion in this many is recorded as an Expand event */
+    private static final int SAMPLE = 1024;
+
+    @Name("puzzles.Solve")
+    @Label("Solve")
+    @Category({"Puzzles", "Solver"})
+    @Description("A whole Solver.solve call")
+    @StackTrace(false)
+    static final class SolveEvent extends Event {
+        @Label("Puzzle") String puzzle;
+        @Label("Mode") String mode;
+        @Label("Board Size") int boardSize;
+        @Label("Total Configs") int numConfigs;
+        @Label("Unique Configs") int uniqueConfigs;
+        @Label("Path Length") int pathLength;
+        @Label("Outcome") String outcome;
+    }
+
+    @Name("puzzles.SearchPhase")
+    @Label("Search Phase")
+    @Category({"Puzzles", "Solver"})
+    @Description("Exploring configurations until a solution is found or there are none left")
+    @StackTrace(false)
+    static final class SearchEvent extends Event {
+        @Label("Puzzle") String puzzle;
+        @Label("Mode") String mode;
+        @Label("Board Size") int boardSize;
+        @Label("Total Configs") int numConfigs;
+        @Label("Unique Configs") int uniqueConfigs;
+    }
+
+    @Name("puzzles.PathPhase")
+    @Label("Path Phase")
+    @Category({"Puzzles", "Solver"})
+    @Description("Rebuilding the path to the solution that was found")
+    @StackTrace(false)
+    static final class PathEvent extends Event {
+        @Label("Puzzle") String puzzle;
+        @Label("Mode") String mode;
+        @Label("Board Size") int boardSize;
+        @Label("Path Length") int pathLength;
+    }
+
+    @Name("puzzles.Expand")
+    @Label("Expand")
+    @Category({"Puzzles", "Solver"})
+    @Description("Generating the neighbors of one configuration, sampled")
+    @StackTrace(false)
+    static final class ExpandEvent extends Event {
+        @Label("Puzzle") String puzzle;
+        @Label("Mode") String mode;
+        @Label("Board Size") int boardSize;
+        @Label("Expansion") long expansion;
+        @Label("Neighbors") int neighbors;
+    }
+
+    /** simple class name of the puzzle's configurations */
+    private final String puzzle;
+    /** search strategy the Solver was asked to use */
+    private final String mode;
+    /** size of the puzzle's board */
+    private final int boardSize;
+    /** thread that is solving, the only one expansions are sampled on */
+    private final Thread owner = Thread.currentThread();
+    /** the whole solve */
+    private final SolveEvent solve = new SolveEvent();
+    /** the search phase, null once it is over */
+    private SearchEvent search = new SearchEvent();
+    /** the path phase, null until the search phase is over and once the path is built */
+    private PathEvent path;
+    /** the sampled expansion in progress, null if there isn't one */
+    private ExpandEvent expand;
+    /** total configs when the sampled expansion started */
+    private int expandConfigs;
+    /** expansions so far on the solving thread */
+    private long expansions;
+
+    /**
+     * starts tracing a solve, if the flight recorder has been started
+     * @param start starting configuration
+     * @param mode search strategy the Solver was asked to use
+     * @return SolveTrace, null if the flight recorder hasn't been started
+     */
+    static SolveTrace start(Configuration start, SearchMode mode) {
+        return FlightRecorder.isInitialized() ? new SolveTrace(start, mode) : null;
+    }
+
+    /**
+     * starts the solve and search phase events
+     * @param start starting configuration
+     * @param mode search strategy the Solver was asked to use
+     */
+    private SolveTrace(Configuration start, SearchMode mode) {
+        this.puzzle = start.getClass().getSimpleName();
+        this.mode = mode.name();
+        this.boardSize = start.getBoardSize();
+        solve.begin();
+        search.begin();
+    }
+
+    /**
+     * called when a configuration is about to be expanded. Ends the sampled expansion before it, and starts
+     * sampling this one if it's due
+     * @param numConfigs total configs generated so far
+     */
+    void expanding(int numConfigs) {
+        if (Thread.currentThread() != owner) {
+            return;
+        }
+        if (expand != null) {
+            expand.end();
+            if (expand.shouldCommit()) {
+                expand.puzzle = puzzle;
+                expand.mode = mode;
+                expand.boardSize = boardSize;
+                expand.neighbors = numConfigs - expandConfigs;
+                expand.commit();
+            }
+            expand = null;
+        }
+        if (++expansions % SAMPLE == 0) {
+            expand = new ExpandEvent();
+            expand.expansion = expansions;
+            expandConfigs = numConfigs;
+            expand.begin();
+        }
+    }
+
+    /**
+     * ends the search phase and starts the path phase, if the search phase hasn't already ended
+     * @param numConfigs total configs generated by the search
+     * @param uniqueConfigs unique configs the search found
+     */
+    void searchDone(int numConfigs, int uniqueConfigs) {
+        if (search == null) {
+            return;
+        }
+        search.end();
+        if (search.shouldCommit()) {
+            search.puzzle = puzzle;
+            search.mode = mode;
+            search.boardSize = boardSize;
+            search.numConfigs = numConfigs;
+            search.uniqueConfigs = uniqueConfigs;
+            search.commit();
+        }
+        search = null;
+        expand = null;
+        path = new PathEvent();
+        path.begin();
+    }
+
+    /**
+     * ends every event still in progress
+     * @param numConfigs total configs generated
+     * @param uniqueConfigs unique configs found
+     * @param pathLength configurations on the path found, 0 if there is no solution or the solve gave up
+     * @param outcome "solved", "unsolvable", "cancelled" or "failed"
+     */
+    void finish(int numConfigs, int uniqueConfigs, int pathLength, String outcome) {
+        searchDone(numConfigs, uniqueConfigs);
+        path.end();
+        if (pathLength > 0 && path.shouldCommit()) {
+            path.puzzle = puzzle;
+            path.mode = mode;
+            path.boardSize = boardSize;
+            path.pathLength = pathLength;
+            path.commit();
+        }
+        solve.end();
+        if (solve.shouldCommit()) {
+            solve.puzzle = puzzle;
+            solve.mode = mode;
+            solve.boardSize = boardSize;
+            solve.numConfigs = numConfigs;
+            solve.uniqueConfigs = uniqueConfigs;
+            solve.pathLength = pathLength;
+            solve.outcome = outcome;
+            solve.commit();
+        }
+    }
+}
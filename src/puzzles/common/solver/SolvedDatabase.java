@@ -0,0 +1,175 @@
+package puzzles.common.solver;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Every configuration reachable from a starting configuration, each labelled with its distance to the nearest
+ * solution or as having no solution. Built with one breadth first exploration of the whole state graph into an
+ * EncodedStateTable, which keeps only the encodings and not how each was reached, then a backward pass that works each distance out from the distances of the configuration's
+ * neighbors. Distances are kept one byte per configuration, indexed the same way as the table, so after building
+ * every lookup is a hash probe on the encoding plus an array read.
+ *
+ * Puzzles where every move removes a piece, like Hoppers and Chess, never move back to an earlier breadth first
+ * level, so a single backward pass is exact. Puzzles with cycles get more passes until nothing changes.
+ */
+public class SolvedDatabase {
+    /** distance stored for configurations with no solution */
+    private static final int UNSOLVABLE = 0xFF;
+    /** longest distance a byte can hold */
+    private static final int MAX_DISTANCE = 0xFE;
+
+    /** a configuration of the puzzle, for encoding and decoding the others */
+    private final Encodable template;
+    /** every reachable configuration, encoded */
+    private final EncodedStateTable table;
+    /** distance to the nearest solution of each configuration in the table, UNSOLVABLE if there is none */
+    private final byte[] distances;
+
+    /**
+     * explores every configuration reachable from start and works out their distances
+     * @param start starting configuration, has to be Encodable
+     * @throws IllegalArgumentException if start isn't Encodable
+     * @throws IllegalStateException if a solution is more than 254 moves away
+     * @throws CancellationException if the building thread is interrupted
+     */
+    public SolvedDatabase(Configuration start) {
+        if (!(start instanceof Encodable encodable)) {
+            throw new IllegalArgumentException("Only Encodable puzzles can have a solved database");
+        }
+        this.template = encodable;
+        long[] key = new long[template.getEncodedWidth()];
+        table = new EncodedStateTable(key.length, FrontierSearch.INITIAL_CAPACITY, false);
+        template.encode(key, 0);
+        table.add(key, -1);
+        for (int head = 0; head < table.size(); head++) {
+            checkInterrupted();
+            table.get(template, head).forEachNeighbor(c -> {
+                ((Encodable) c).encode(key, 0);
+                table.add(key, -1);
+                return true;
+            });
+        }
+        distances = new byte[table.size()];
+        Arrays.fill(distances, (byte) UNSOLVABLE);
+        while (propagate(key)) {
+            checkInterrupted();
+        }
+    }
+
+    /**
+     * one backward pass over the table, from the last configuration found to the first, setting each distance to
+     * one more than the smallest distance of its neighbors
+     * @param key scratch space to encode neighbors into
+     * @return true if another pass is needed: a distance changed and some move leads back to a configuration
+     * that was found earlier, whose distance may have been worked out from a stale one
+     */
+    private boolean propagate(long[] key) {
+        boolean changed = false;
+        boolean backwards = false;
+        for (int i = table.size() - 1; i >= 0; i--) {
+            if (i % 4096 == 0) {
+                checkInterrupted();
+            }
+            Configuration c = table.get(template, i);
+            int best = Integer.MAX_VALUE;
+            if (c.isSolution()) {
+                best = 0;
+            } else {
+                for (Configuration neighbor : c.getNeighbors()) {
+                    ((Encodable) neighbor).encode(key, 0);
+                    int index = table.indexOf(key);
+                    backwards |= index <= i;
+                    int distance = distances[index] & 0xFF;
+                    if (distance != UNSOLVABLE && distance + 1 < best) {
+                        best = distance + 1;
+                    }
+                }
+            }
+            if (best == Integer.MAX_VALUE) {
+                best = UNSOLVABLE;
+            } else if (best > MAX_DISTANCE) {
+                throw new IllegalStateException("Solutions over " + MAX_DISTANCE + " moves away don't fit");
+            }
+            if (best != (distances[i] & 0xFF)) {
+                distances[i] = (byte) best;
+                changed = true;
+            }
+        }
+        return changed && backwards;
+    }
+
+    /**
+     * gives up building if the thread building the database has been interrupted
+     * @throws CancellationException if it has
+     */
+    private static void checkInterrupted() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Building the solved database was interrupted");
+        }
+    }
+
+    /**
+     * finds a configuration in the table
+     * @param configuration configuration of the same puzzle
+     * @return index in the table, -1 if it isn't reachable from the start
+     */
+    private int indexOf(Configuration configuration) {
+        if (!(configuration instanceof Encodable encodable)) {
+            return -1;
+        }
+        long[] key = new long[template.getEncodedWidth()];
+        encodable.encode(key, 0);
+        return table.indexOf(key);
+    }
+
+    /**
+     * the number of configurations reachable from the start
+     * @return int
+     */
+    public int size() {
+        return distances.length;
+    }
+
+    /**
+     * checks if a configuration is reachable from the start, and so has an entry
+     * @param configuration configuration of the same puzzle
+     * @return boolean
+     */
+    public boolean contains(Configuration configuration) {
+        return indexOf(configuration) != -1;
+    }
+
+    /**
+     * gets the number of moves from a configuration to the nearest solution
+     * @param configuration configuration of the same puzzle
+     * @return moves left, -1 if the configuration has no solution, -2 if it isn't reachable from the start
+     */
+    public int getDistance(Configuration configuration) {
+        int index = indexOf(configuration);
+        if (index == -1) {
+            return -2;
+        }
+        int distance = distances[index] & 0xFF;
+        return distance == UNSOLVABLE ? -1 : distance;
+    }
+
+    /**
+     * gets the first neighbor of a configuration that is one move closer to the nearest solution
+     * @param configuration configuration of the same puzzle
+     * @return Configuration one move closer, null if the configuration is a solution, has no solution, or isn't
+     * reachable from the start
+     */
+    public Configuration getNext(Configuration configuration) {
+        int distance = getDistance(configuration);
+        if (distance <= 0) {
+            return null;
+        }
+        for (Configuration neighbor : configuration.getNeighbors()) {
+            if (getDistance(neighbor) == distance - 1) {
+                return neighbor;
+            }
+        }
+        return null;
+    }
+}
@@ -1,5 +1,6 @@
 package puzzles.common.solver;
 import java.util.*;
+import java.util.concurrent.CancellationException;
 
 /**
  * Generic solver class to solve puzzles of different various configs
@@ -7,14 +8,28 @@ import java.util.*;
  * @author Nathan Klein
  */
 public class Solver {
-    /** Hashmap of Configs to build the predecessor map*/
-    HashMap<Configuration, Configuration> predecessorMap;
-    /** LinkedList of configs that represents the queue*/
-    LinkedList<Configuration> queue;
+    /** the search strategy used to solve*/
+    private final SearchMode mode;
+    /** the number of threads used by the parallel search*/
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    /** the estimate of moves left used by the best first searches*/
+    private Heuristic heuristic = Heuristic.NONE;
+    /** the number of dead ends the depth first search remembers*/
+    private int transpositionTableSize = 1 << 16;
+    /** the number of milliseconds a solve can run for, 0 for no limit*/
+    private long timeLimit;
+    /** the search currently running, so another thread can cancel it*/
+    private volatile Search running;
+    /** set once cancel() has been called*/
+    private volatile boolean cancelled;
     /** the number of total configs created*/
     private int numConfigs = 1;
     /** the number of unique configs generated*/
     private int uniqueConfigs;
+    /** listeners told how every solve is going*/
+    private final List<SolverListener> listeners = new ArrayList<>();
+    /** how the last solve went, null before the first one*/
+    private SolverMetrics metrics;
 
     /**
      * returns the total number of configurations generated by the Solver
@@ -35,51 +50,145 @@ public class Solver {
     }
 
     /**
-     * Constructs a new solver with a new hashmap and linkedlist
+     * returns how the last solve went: its levels, config counts, time taken, and memory used
+     * should only be called after solve() has been called
+     * @return SolverMetrics, null if nothing has been solved yet
+     */
+    public SolverMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Constructs a new solver that uses the frontier breadth first search
      */
     public Solver() {
-        this.predecessorMap = new HashMap<>();
-        this.queue = new LinkedList<>();
+        this(SearchMode.FRONTIER);
+    }
+
+    /**
+     * Constructs a new solver that uses the given search strategy
+     * @param mode search strategy to solve with
+     */
+    public Solver(SearchMode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * returns the search strategy used by this Solver
+     * @return SearchMode
+     */
+    public SearchMode getMode() {
+        return mode;
+    }
+
+    /**
+     * sets the number of threads the PARALLEL search expands each level with
+     * @param parallelism number of threads, defaults to the number of available processors
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * sets the estimate of moves left that the BEST_FIRST and ITERATIVE_DEEPENING searches are guided by
+     * @param heuristic admissible estimate of moves left, defaults to Heuristic.NONE
+     */
+    public void setHeuristic(Heuristic heuristic) {
+        this.heuristic = heuristic;
+    }
+
+    /**
+     * sets how many configurations known to be dead ends the DEPTH_FIRST search remembers
+     * @param size number of slots in the transposition table, defaults to 65536
+     */
+    public void setTranspositionTableSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Transposition table size must be at least 1: " + size);
+        }
+        this.transpositionTableSize = size;
+    }
+
+    /**
+     * sets how long a solve can run before it gives up by throwing a CancellationException
+     * @param millis number of milliseconds, defaults to 0 for no limit
+     */
+    public void setTimeLimit(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Time limit can't be negative: " + millis);
+        }
+        this.timeLimit = millis;
+    }
+
+    /**
+     * adds a listener that is told how every later solve is going while it runs
+     * @param listener listener to add
+     */
+    public void addListener(SolverListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * makes the solve running on another thread give up by throwing a CancellationException, along with any
+     * later solve by this Solver
+     */
+    public void cancel() {
+        cancelled = true;
+        Search search = running;
+        if (search != null) {
+            search.cancel();
+        }
     }
 
     /**
      * finds the shortest path to a configuration that is a valid solution
      * @param configuration starting configuration to solve
      * @return LinkedList of Configurations that represent the shortest path to a valid solution
+     * @throws CancellationException if the Solver was cancelled or ran past its time limit
      */
     public LinkedList<Configuration> solve(Configuration configuration) {
-        queue.add(configuration);
-        predecessorMap.put(configuration, null);
-        Configuration next = queue.remove(0);
-        //  BUILDING THE PREDECESSOR MAP
-        while (!next.isSolution()) {
-            Collection<Configuration> neighbors = next.getNeighbors();
-            numConfigs += neighbors.size();
-            for (Configuration c : neighbors) {
-                if (!predecessorMap.containsKey(c)) {
-                    queue.add(c);
-                    predecessorMap.put(c, next);
-                }
-            }
-            if (queue.isEmpty()) { // if there is no solution
-                uniqueConfigs = predecessorMap.size();
-                return new LinkedList<>();
-            } else { // there stuff in the queue so there might be a solution
-                next = queue.remove(0);
-            }
+        Search search = switch (mode) {
+            case CLASSIC -> new ClassicSearch();
+            case FRONTIER -> new FrontierSearch();
+            case BIDIRECTIONAL -> new BidirectionalSearch();
+            case PARALLEL -> new ParallelSearch(parallelism);
+            case BEST_FIRST -> new AStarSearch(heuristic);
+            case ITERATIVE_DEEPENING -> new IdaStarSearch(heuristic);
+            case DEPTH_FIRST -> new DepthFirstSearch(transpositionTableSize);
+            case COMPACT -> new CompactSearch();
+            case REPLAY -> new ReplaySearch();
+            case SYMMETRIC -> new SymmetricSearch();
+            case DECOMPOSED -> new DecomposedSearch();
+        };
+        if (timeLimit > 0) {
+            search.setDeadline(System.nanoTime() + timeLimit * 1_000_000);
         }
-        //
-        //  GOES BACK THROUGH THE PREDECESSOR MAP TO FIND THE SHORTEST PATH
-        //
-        Configuration step = next;
-        LinkedList<Configuration> path = new LinkedList<>();
-        while (predecessorMap.get(step) != null) {
-            path.add(0, step);
-            step = predecessorMap.get(step);
+        search.start(configuration, mode, listeners.isEmpty() ? List.of() : List.copyOf(listeners));
+        running = search;
+        if (cancelled) {
+            search.cancel();
+        }
+        int pathLength = 0;
+        String outcome = "failed";
+        try {
+            LinkedList<Configuration> path = search.solve(configuration);
+            pathLength = path.size();
+            outcome = path.isEmpty() ? "unsolvable" : "solved";
+            return path;
+        } catch (CancellationException e) {
+            outcome = "cancelled";
+            throw e;
+        } finally {
+            running = null;
+            numConfigs = search.numConfigs;
+            uniqueConfigs = search.uniqueConfigs;
+            metrics = search.finish(pathLength, outcome);
+            for (SolverListener listener : listeners) {
+                listener.solveFinished(metrics);
+            }
         }
-        path.add(0, step);
-        uniqueConfigs = predecessorMap.size();
-        return path;
     }
 
 }
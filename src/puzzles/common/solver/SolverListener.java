@@ -0,0 +1,31 @@
+package puzzles.common.solver;
+
+/**
+ * Is told how a Solver's search is going while it runs. Breadth first searches report every level they reach,
+ * a level of either side for the bidirectional search. Every search reports its progress every so often, and once
+ * when it finishes, whether it found a solution, found there is none, or gave up. Listeners are called on the
+ * thread that is solving, so they should be quick.
+ */
+public interface SolverListener {
+    /** least number of milliseconds between two progress calls */
+    long PROGRESS_INTERVAL = 100;
+
+    /**
+     * called when a breadth first search has finished expanding one level and is about to expand the next
+     * @param metrics the search so far, with the size of the level it reached
+     */
+    default void levelReached(SolverMetrics metrics) {}
+
+    /**
+     * called at most every PROGRESS_INTERVAL milliseconds while the search is expanding configurations, however
+     * fast it's going, so it's safe to pass on to a UI
+     * @param metrics the search so far, with the depth of the configuration being expanded as its level
+     */
+    default void progress(SolverMetrics metrics) {}
+
+    /**
+     * called once the solve is over
+     * @param metrics the whole search, with a frontier size of 0
+     */
+    default void solveFinished(SolverMetrics metrics) {}
+}
@@ -0,0 +1,41 @@
+package puzzles.common.solver;
+
+/**
+ * A snapshot of how a search is going, given to SolverListeners and kept by the Solver after each solve
+ * @param mode search strategy being used
+ * @param level number of levels reached before this one, 0 for the level holding just the start. In progress
+ *              reports, the depth of the configuration being expanded
+ * @param frontierSize configurations in the level reached, 0 in progress reports and once the solve is over
+ * @param numConfigs configurations generated so far, counting duplicates
+ * @param uniqueConfigs different configurations visited so far, as of the last level reached for breadth first
+ *                      searches in progress reports
+ * @param loadFactor fraction of the visited table's slots in use, NaN for searches without a StateTable
+ * @param elapsedNanos time since the solve started
+ * @param heapBytes growth of the used heap since the solve started, including garbage not yet collected
+ */
+public record SolverMetrics(SearchMode mode, int level, int frontierSize, int numConfigs, int uniqueConfigs,
+                            double loadFactor, long elapsedNanos, long heapBytes) {
+    /**
+     * the rate configurations have been generated at
+     * @return double - configurations per second
+     */
+    public double statesPerSecond() {
+        return elapsedNanos == 0 ? 0 : numConfigs * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * the fraction of generated configurations that had already been visited
+     * @return double between 0 and 1
+     */
+    public double duplicateRatio() {
+        return numConfigs == 0 ? 0 : Math.max(0, 1 - (double) uniqueConfigs / numConfigs);
+    }
+
+    /**
+     * a rough estimate of the memory each visited configuration takes, from how much the heap has grown
+     * @return double - bytes per unique configuration
+     */
+    public double heapBytesPerState() {
+        return uniqueConfigs == 0 ? 0 : (double) heapBytes / uniqueConfigs;
+    }
+}
@@ -0,0 +1,184 @@
+package puzzles.common.solver;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+
+/**
+ * Append only table of visited configurations. Every configuration is given an index in the order it was added,
+ * so the table doubles as the breadth first frontier: everything between the head of the search and size() is
+ * still waiting to be expanded. Lookups go through an open addressing hash table of indices, so no per entry
+ * objects are allocated the way a HashMap would.
+ */
+final class StateTable {
+    /** the configurations, in the order they were added */
+    private Configuration[] states;
+    /** index of the configuration each configuration was reached from, -1 for the start */
+    private int[] parents;
+    /** cached hash codes, so probing and resizing never call hashCode() again */
+    private int[] hashes;
+    /** open addressing slots holding index+1 of a configuration, 0 if the slot is empty */
+    private int[] slots;
+    /** number of configurations in the table */
+    private int size;
+
+    /**
+     * creates a table presized to hold the expected number of configurations without growing
+     * @param expected number of configurations expected to be added
+     */
+    StateTable(int expected) {
+        int capacity = Math.max(16, expected);
+        states = new Configuration[capacity];
+        parents = new int[capacity];
+        hashes = new int[capacity];
+        slots = new int[Integer.highestOneBit(capacity - 1) << 2]; // at least twice the capacity
+    }
+
+    /**
+     * spreads the bits of a hash code so that poor hashCode() implementations still probe well
+     * @param h hash code
+     * @return mixed hash code
+     */
+    static int mix(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * adds a configuration to the table if it is not already present
+     * @param config configuration to add
+     * @param parent index of the configuration it was reached from, -1 if none
+     * @return the index of the added configuration, or -1 if it was already in the table
+     */
+    int add(Configuration config, int parent) {
+        int hash = config.hashCode();
+        int mask = slots.length - 1;
+        int slot = mix(hash) & mask;
+        int entry;
+        while ((entry = slots[slot]) != 0) {
+            int index = entry - 1;
+            if (hashes[index] == hash && states[index].equals(config)) {
+                return -1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size == states.length) {
+            int capacity = size << 1;
+            states = Arrays.copyOf(states, capacity);
+            parents = Arrays.copyOf(parents, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+        }
+        int index = size++;
+        states[index] = config;
+        parents[index] = parent;
+        hashes[index] = hash;
+        slots[slot] = index + 1;
+        if (size << 1 > slots.length) { // keep the slots at most half full
+            rehash();
+        }
+        return index;
+    }
+
+    /**
+     * finds the index of a configuration in the table
+     * @param config configuration to look for
+     * @return the index of the configuration, or -1 if it is not in the table
+     */
+    int indexOf(Configuration config) {
+        int hash = config.hashCode();
+        int mask = slots.length - 1;
+        int slot = mix(hash) & mask;
+        int entry;
+        while ((entry = slots[slot]) != 0) {
+            int index = entry - 1;
+            if (hashes[index] == hash && states[index].equals(config)) {
+                return index;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * counts the number of moves from the start configuration to the configuration at the given index
+     * @param index index of the configuration
+     * @return int number of moves
+     */
+    int depth(int index) {
+        int depth = 0;
+        for (int i = parents[index]; i != -1; i = parents[i]) {
+            depth++;
+        }
+        return depth;
+    }
+
+    /**
+     * doubles the number of slots and reinserts every configuration using its cached hash
+     */
+    private void rehash() {
+        slots = new int[slots.length << 1];
+        int mask = slots.length - 1;
+        for (int index = 0; index < size; index++) {
+            int slot = mix(hashes[index]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = index + 1;
+        }
+    }
+
+    /**
+     * gets the configuration at the given index
+     * @param index index of the configuration
+     * @return Configuration
+     */
+    Configuration get(int index) {
+        return states[index];
+    }
+
+    /**
+     * gets the index of the configuration the given configuration was reached from
+     * @param index index of the configuration
+     * @return int parent index, -1 for the start configuration
+     */
+    int parent(int index) {
+        return parents[index];
+    }
+
+    /**
+     * changes the configuration the given configuration was reached from, when a shorter way to it was found
+     * @param index index of the configuration
+     * @param parent index of the new parent
+     */
+    void setParent(int index, int parent) {
+        parents[index] = parent;
+    }
+
+    /**
+     * returns the number of configurations in the table
+     * @return int
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * returns the fraction of hash slots currently in use
+     * @return double between 0 and 1
+     */
+    double loadFactor() {
+        return (double) size / slots.length;
+    }
+
+    /**
+     * follows parent indices back from the given index to build the path from the start configuration
+     * @param index index of the last configuration in the path
+     * @return LinkedList of Configurations from the start to the given configuration
+     */
+    LinkedList<Configuration> pathTo(int index) {
+        LinkedList<Configuration> path = new LinkedList<>();
+        for (int i = index; i != -1; i = parents[i]) {
+            path.addFirst(states[i]);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,16 @@
+package puzzles.common.solver;
+
+/**
+ * A Configuration whose puzzle looks the same after some rotations or reflections of the board. All the
+ * configurations that are rotations or reflections of each other have the same distance to a solution, so the
+ * Solver only has to visit one of them: the canonical one.
+ */
+public interface Symmetric extends Configuration {
+    /**
+     * gets the canonical configuration of this configuration's symmetry class. Configurations that are
+     * symmetric to each other must have equal canonical configurations, and whether a configuration is a
+     * solution must not depend on which of them is looked at.
+     * @return Configuration - the canonical rotation or reflection of this configuration
+     */
+    Configuration getCanonical();
+}
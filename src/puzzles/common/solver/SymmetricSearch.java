@@ -0,0 +1,75 @@
+package puzzles.common.solver;
+
+import java.util.LinkedList;
+
+/**
+ * Breadth first search over the canonical forms of Symmetric configurations, so each symmetry class is only
+ * visited once. The path it finds is made of canonical configurations, which may be rotated or reflected
+ * relative to the board the user started with. It is turned back into the user's orientation by walking forward
+ * from the start, at each step picking the neighbor whose canonical form is the next configuration on the
+ * canonical path. Configurations that are not Symmetric are solved with a plain FrontierSearch.
+ */
+class SymmetricSearch extends Search {
+    /** the canonical form of every configuration visited so far */
+    private final StateTable table = new StateTable(FrontierSearch.INITIAL_CAPACITY);
+    /** index of the configuration being expanded */
+    private int head;
+    /** index of the first solution found, -1 if none has been */
+    private int goal = -1;
+
+    @Override
+    LinkedList<Configuration> solve(Configuration start) {
+        if (!(start instanceof Symmetric symmetric)) {
+            return delegate(new FrontierSearch(), start);
+        }
+        table.add(symmetric.getCanonical(), -1);
+        if (start.isSolution()) {
+            goal = 0;
+        }
+        // expand until the first solution in the frontier is reached, like the classic search
+        int levelEnd = 0;
+        for (head = 0; goal == -1 ? head < table.size() : head < goal; head++) {
+            checkpoint();
+            if (head == levelEnd) {
+                levelEnd = table.size();
+                levelReached(levelEnd, levelEnd - head, table.loadFactor());
+            }
+            table.get(head).forEachNeighbor(this::visit);
+        }
+        uniqueConfigs = table.size();
+        searchDone();
+        LinkedList<Configuration> path = new LinkedList<>();
+        if (goal == -1) {
+            return path;
+        }
+        LinkedList<Configuration> canonical = table.pathTo(goal);
+        canonical.removeFirst();
+        Configuration step = start;
+        path.add(step);
+        for (Configuration next : canonical) {
+            for (Configuration c : step.getNeighbors()) {
+                if (((Symmetric) c).getCanonical().equals(next)) {
+                    step = c;
+                    break;
+                }
+            }
+            path.add(step);
+        }
+        return path;
+    }
+
+    /**
+     * adds the canonical form of a neighbor of the configuration being expanded to the table, if it hasn't been
+     * visited
+     * @param neighbor neighbor to add
+     * @return true, to visit every neighbor
+     */
+    private boolean visit(Configuration neighbor) {
+        numConfigs++;
+        int index = table.add(((Symmetric) neighbor).getCanonical(), head);
+        if (goal == -1 && index != -1 && neighbor.isSolution()) {
+            goal = index;
+        }
+        return true;
+    }
+}
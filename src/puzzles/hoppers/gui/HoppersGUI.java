@@ -3,6 +3,7 @@ import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.BorderPane;
@@ -11,14 +12,17 @@ import javafx.scene.layout.HBox;
 import javafx.scene.text.Font;
 import javafx.stage.FileChooser;
 import puzzles.common.Observer;
+import puzzles.common.solver.SolverMetrics;
 import puzzles.hoppers.model.HoppersModel;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.stage.Stage;
 
 import java.io.File;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Class to create a Graphical UI using HoppersConfig and HoppersModel
@@ -42,6 +46,11 @@ public class HoppersGUI extends Application implements Observer<HoppersModel, St
     private Stage stage;
     private GridPane pond;
     private Label message;
+    /** the progress of the hint being worked out, with its cancel button */
+    private HBox progress;
+    private Label progressText;
+    /** the latest progress of the hint, waiting for the UI thread to show it, null if there isn't any */
+    private final AtomicReference<SolverMetrics> latestProgress = new AtomicReference<>();
 
     private HoppersModel model;
 
@@ -66,6 +75,7 @@ public class HoppersGUI extends Application implements Observer<HoppersModel, St
         String filename = getParameters().getRaw().get(0);
         model = new HoppersModel(filename);
         model.addObserver(this);
+        model.addProgressObserver((hoppersModel, metrics) -> progress(metrics));
         firstFile = filename;
     }
 
@@ -90,6 +100,20 @@ public class HoppersGUI extends Application implements Observer<HoppersModel, St
         buttons.getChildren().addAll(List.of(load, reset, hint));
         buttons.setAlignment(Pos.BOTTOM_CENTER);
 
+        // Make hint progress, shown while a hint is being worked out
+        ProgressIndicator spinner = new ProgressIndicator();
+        spinner.setPrefSize(FONT_SIZE * 2, FONT_SIZE * 2);
+        progressText = new Label();
+        progressText.setFont(new Font(FONT_SIZE));
+        Button cancel = new Button("Cancel");
+        cancel.setFont(new Font(FONT_SIZE));
+        cancel.setOnAction(e -> model.stopHint());
+        progress = new HBox(spinner, progressText, cancel);
+        progress.setAlignment(Pos.CENTER);
+        progress.setSpacing(FONT_SIZE / 2.0);
+        hideProgress();
+        buttons.getChildren().add(progress);
+
         // Make Message Box
         HBox text = new HBox();
         message = new Label();
@@ -119,6 +143,11 @@ public class HoppersGUI extends Application implements Observer<HoppersModel, St
         if (!initialized) {
             return;
         }
+        if (!Platform.isFxApplicationThread()) {   // hints arrive from the model's background thread
+            Platform.runLater(() -> update(hoppersModel, msg));
+            return;
+        }
+        hideProgress();   // any message means the hint, if there was one, is over
         message.setText(msg);
         if (pond.getChildren().size()==0) {
 
@@ -144,6 +173,40 @@ public class HoppersGUI extends Application implements Observer<HoppersModel, St
         this.stage.sizeToScene();  // when a different sized puzzle is loaded
     }
 
+    /**
+     * keeps the latest progress of a hint and asks the UI thread to show it, unless it's already been asked and
+     * hasn't got to it yet, so however often the model reports, the UI thread only has one update queued
+     * @param metrics the hint's search so far
+     */
+    private void progress(SolverMetrics metrics) {
+        if (latestProgress.getAndSet(metrics) == null) {
+            Platform.runLater(this::showProgress);
+        }
+    }
+
+    /**
+     * shows the latest progress of the hint, if it hasn't finished since
+     */
+    private void showProgress() {
+        SolverMetrics metrics = latestProgress.getAndSet(null);
+        if (!initialized || metrics == null) {
+            return;
+        }
+        progressText.setText(String.format("%,d states, depth %d, %,.0f states/s", metrics.numConfigs(),
+                metrics.level(), metrics.statesPerSecond()));
+        progress.setVisible(true);
+        progress.setManaged(true);
+    }
+
+    /**
+     * hides the hint's progress, once the hint has finished one way or another
+     */
+    private void hideProgress() {
+        latestProgress.set(null);
+        progress.setVisible(false);
+        progress.setManaged(false);
+    }
+
     public static void main(String[] args) {
         if (args.length != 1) {
             System.out.println("Usage: java HoppersPTUI filename");
@@ -0,0 +1,134 @@
+package puzzles.hoppers.model;
+
+import java.util.Arrays;
+
+/**
+ * The layout of a Hoppers puzzle, which is the same for every board reached while solving it: its size, which
+ * cells are playable, and the table of every jump on it. Every HoppersConfig of the puzzle shares one
+ * HoppersBoard, so puzzles loaded at the same time don't interfere with each other.
+ */
+final class HoppersBoard {
+    /** rows moved by a jump to the W, NW, N, NE, E, SE, S and SW */
+    private static final int[] JUMP_ROWS = {0, -2, -4, -2, 0, 2, 4, 2};
+    /** columns moved by a jump to the W, NW, N, NE, E, SE, S and SW */
+    private static final int[] JUMP_COLS = {-4, -2, 0, 2, 4, 2, 0, -2};
+    /** rotations and reflections of a square board, only the first 4 keep a rectangular board's shape */
+    private static final int SYMMETRIES = 8;
+
+    final int rows;
+    final int cols;
+    /** number of playable cells */
+    final int cells;
+    /** playable cell index of each square (row * cols + column), -1 for '*' squares */
+    final int[] cellIndex;
+    /** longs needed for a mask with one bit per playable cell */
+    final int words;
+    /** the playable cell a frog jumps from, for every jump on the board */
+    final int[] jumpFrom;
+    /** the playable cell a frog jumps over, for every jump on the board */
+    final int[] jumpOver;
+    /** the playable cell a frog lands on, for every jump on the board */
+    final int[] jumpTo;
+    /** the jumps from playable cell i are jumpStart[i] up to jumpStart[i+1], in W, NW, N, ... SW order */
+    final int[] jumpStart;
+    /**
+     * for every rotation or reflection that keeps the board's layout of playable cells, the playable cell each
+     * playable cell comes from, see sourceCell; null for the ones that don't
+     */
+    final int[][] symmetryCells;
+
+    /**
+     * numbers the playable cells of a board and builds the table of every (from, over, to) jump on it, plus the
+     * rotations and reflections that keep its shape
+     * @param grid board that was read in, '*' for unplayable cells
+     */
+    HoppersBoard(char[][] grid) {
+        rows = grid.length;
+        cols = grid[0].length;
+        cellIndex = new int[rows*cols];
+        int count = 0;
+        for (int r=0; r<rows; r++) {
+            for (int c=0; c<cols; c++) {
+                cellIndex[r*cols + c] = grid[r][c] == '*' ? -1 : count++;
+            }
+        }
+        cells = count;
+        words = Math.max(1, (cells+63)/64);
+        jumpStart = new int[cells+1];
+        int[] from = new int[cells*JUMP_ROWS.length];
+        int[] over = new int[from.length];
+        int[] to = new int[from.length];
+        int jumps = 0;
+        for (int square=0; square<rows*cols; square++) {
+            int cell = cellIndex[square];
+            if (cell < 0) { continue; }
+            jumpStart[cell] = jumps;
+            int r = square / cols;
+            int c = square % cols;
+            for (int dir=0; dir<JUMP_ROWS.length; dir++) {
+                int toRow = r + JUMP_ROWS[dir];
+                int toCol = c + JUMP_COLS[dir];
+                if (toRow < 0 || toRow >= rows || toCol < 0 || toCol >= cols) { continue; }
+                int landing = cellIndex[toRow*cols + toCol];
+                int middle = cellIndex[(r+toRow)/2*cols + (c+toCol)/2];
+                if (landing >= 0 && middle >= 0) {
+                    from[jumps] = cell;
+                    over[jumps] = middle;
+                    to[jumps++] = landing;
+                }
+            }
+        }
+        jumpStart[cells] = jumps;
+        jumpFrom = Arrays.copyOf(from, jumps);
+        jumpOver = Arrays.copyOf(over, jumps);
+        jumpTo = Arrays.copyOf(to, jumps);
+        symmetryCells = new int[SYMMETRIES][];
+        for (int symmetry=1; symmetry<SYMMETRIES; symmetry++) {
+            if (symmetry < SYMMETRIES/2 || rows == cols) {
+                symmetryCells[symmetry] = symmetryCells(symmetry);
+            }
+        }
+    }
+
+    /**
+     * finds the playable cell each playable cell comes from after a rotation or reflection
+     * @param symmetry rotation or reflection that keeps the board's shape, see sourceCell
+     * @return int[] source cells, or null if the rotation or reflection moves a playable cell onto an
+     * unplayable one, which would also break jumps
+     */
+    private int[] symmetryCells(int symmetry) {
+        int[] sources = new int[cells];
+        for (int r=0; r<rows; r++) {
+            for (int c=0; c<cols; c++) {
+                int cell = cellIndex[r*cols + c];
+                int source = cellIndex[sourceCell(symmetry, r, c)];
+                if ((cell < 0) != (source < 0)) { return null; }
+                if (cell >= 0) { sources[cell] = source; }
+            }
+        }
+        return sources;
+    }
+
+    /**
+     * finds the cell of the board that lands on (r, c) after a rotation or reflection
+     * @param symmetry 0 identity, 1 left/right flip, 2 up/down flip, 3 half turn, 4 transpose,
+     *                 5 anti-transpose, 6 quarter turn, 7 three quarter turn
+     * @param r row after the rotation or reflection
+     * @param c column after the rotation or reflection
+     * @return int index (row * cols + column) of the cell it came from
+     */
+    private int sourceCell(int symmetry, int r, int c) {
+        int lastRow = rows-1;
+        int lastCol = cols-1;
+        return switch (symmetry) {
+            case 0 -> r*cols + c;
+            case 1 -> r*cols + (lastCol-c);
+            case 2 -> (lastRow-r)*cols + c;
+            case 3 -> (lastRow-r)*cols + (lastCol-c);
+            case 4 -> c*cols + r;
+            case 5 -> (lastRow-c)*cols + (lastRow-r);
+            case 6 -> (lastRow-c)*cols + r;
+            default -> c*cols + (lastRow-r);
+        };
+    }
+}
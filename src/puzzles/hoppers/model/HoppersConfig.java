@@ -1,6 +1,11 @@
 package puzzles.hoppers.model;
 
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.Encodable;
+import puzzles.common.solver.Heuristic;
+import puzzles.common.solver.NeighborVisitor;
+import puzzles.common.solver.Replayable;
+import puzzles.common.solver.Symmetric;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
@@ -14,23 +19,32 @@ import java.util.Collection;
  *
  * @author Nathan Klein nek7125@rit.edu
  */
-public class HoppersConfig implements Configuration{
+public class HoppersConfig implements Encodable, Replayable, Symmetric {
 
-    private char[][] grid;
-    private static int rows;
-    private static int cols;
+    /** every jump removes exactly one green frog, so the green frogs left is the exact number of moves left */
+    public static final Heuristic HEURISTIC = config -> ((HoppersConfig) config).getGreenFrogs();
 
+    /** what a playable cell can hold, indexed by its 2 bit code */
+    private static final String CELLS = ".GR";
     /**
-     * creates a new HoppersConfig from a file
+     * a mask of the green frogs (words 0 up to words) followed by a mask of the red frogs; playable cell i is bit
+     * (i % 64) of word (i / 64) of each mask
+     */
+    private final long[] frogs;
+    /** the layout of the puzzle, shared by every board reached from the same starting board */
+    private final HoppersBoard board;
+
+    /**
+     * creates a new HoppersConfig from a file, and compiles the board's layout
      * @param filename file
      * @throws IOException fileNotFoundException
      */
     public HoppersConfig(String filename) throws IOException {
         try (BufferedReader in = new BufferedReader(new FileReader(filename))) {
             String[] dims = in.readLine().split(" ");
-            rows = Integer.parseInt(dims[0]);
-            cols = Integer.parseInt(dims[1]);
-            grid = new char[rows][cols];
+            int rows = Integer.parseInt(dims[0]);
+            int cols = Integer.parseInt(dims[1]);
+            char[][] grid = new char[rows][cols];
             // populates grid w/ thingies
             for (int r=0; r<rows; r++) { // for each row
                 String[] row = in.readLine().split(" ");
@@ -38,6 +52,17 @@ public class HoppersConfig implements Configuration{
                     grid[r][c] = row[c].charAt(0);
                 }
             }
+            board = new HoppersBoard(grid);
+            frogs = new long[board.words*2];
+            for (int r=0; r<board.rows; r++) {
+                for (int c=0; c<board.cols; c++) {
+                    int code = CELLS.indexOf(grid[r][c]);
+                    if (code > 0) {
+                        int cell = board.cellIndex[r*board.cols + c];
+                        frogs[(code-1)*board.words + cell/64] |= 1L << cell;
+                    }
+                }
+            }
         }
     }
 
@@ -50,30 +75,98 @@ public class HoppersConfig implements Configuration{
      * @param toCol column to jump to
      */
     public HoppersConfig(HoppersConfig other, int fromRow, int fromCol, int toRow, int toCol) {
-        this.grid = new char[rows][cols];
-        for (int r=0; r<rows; r++) {
-            System.arraycopy(other.grid[r], 0, this.grid[r], 0, cols);
+        this(other, other.board.cellIndex[fromRow*other.board.cols + fromCol],
+                other.board.cellIndex[(fromRow+toRow)/2*other.board.cols + (fromCol+toCol)/2],
+                other.board.cellIndex[toRow*other.board.cols + toCol]);
+    }
+
+    /**
+     * copies a HoppersConfig with a frog moved
+     * @param other HoppersConfig to copy
+     * @param from playable cell to jump from
+     * @param over playable cell jumped over, -1 for none
+     * @param to playable cell to jump to
+     */
+    private HoppersConfig(HoppersConfig other, int from, int over, int to) {
+        this.board = other.board;
+        this.frogs = other.frogs.clone();
+        int code = other.code(from);
+        clear(from);    // from cell
+        clear(over);    // middle cell
+        if (code > 0 && to >= 0) {
+            frogs[(code-1)*board.words + to/64] |= 1L << to;    // to cell
         }
-        char frog = this.grid[fromRow][fromCol];
-        this.grid[fromRow][fromCol] = '.';                      // from cell
-        this.grid[(fromRow+toRow)/2][(fromCol+toCol)/2] = '.';  // middle cell
-        this.grid[toRow][toCol] = frog;                         // to cell
     }
 
     /**
-     * checks if the HoppersConfig is a valid solution
+     * creates a HoppersConfig around already filled in masks
+     * @param board the layout of the puzzle
+     * @param frogs masks to use, laid out like the frogs field
+     */
+    private HoppersConfig(HoppersBoard board, long[] frogs) {
+        this.board = board;
+        this.frogs = frogs;
+    }
+
+    /**
+     * gets what a playable cell holds
+     * @param cell playable cell, -1 for an unplayable one
+     * @return int 2 bit code: 0 open, 1 green frog, 2 red frog
+     */
+    private int code(int cell) {
+        if (cell < 0) { return 0; }
+        if ((frogs[cell/64] >>> cell & 1L) != 0) { return 1; }
+        return (int) (frogs[board.words + cell/64] >>> cell & 1L) * 2;
+    }
+
+    /**
+     * empties a playable cell
+     * @param cell playable cell, -1 does nothing
+     */
+    private void clear(int cell) {
+        if (cell >= 0) {
+            frogs[cell/64] &= ~(1L << cell);
+            frogs[board.words + cell/64] &= ~(1L << cell);
+        }
+    }
+
+    /**
+     * checks if a jump can be made: the landing cell has to be open and the cell jumped over has to hold a green
+     * frog
+     * @param jump index into the jump table
+     * @return boolean
+     */
+    private boolean canJump(int jump) {
+        int over = board.jumpOver[jump];
+        int to = board.jumpTo[jump];
+        return (frogs[over/64] >>> over & 1L) != 0
+                && ((frogs[to/64] | frogs[board.words + to/64]) >>> to & 1L) == 0;
+    }
+
+    /**
+     * checks if the HoppersConfig is a valid solution, which is when the green frog mask is empty
      * @return boolean
      */
     @Override
     public boolean isSolution() {
-        for (int r=0; r<rows; r++) { // for each row
-            for (int c=0; c<cols; c++) { // for each column in the row
-                if (grid[r][c] == 'G') { return false; }
-            }
+        for (int word=0; word<board.words; word++) {
+            if (frogs[word] != 0) { return false; }
         }
         return true;
     }
 
+    /**
+     * counts the green frogs left on the board
+     * @return int
+     */
+    public int getGreenFrogs() {
+        int green = 0;
+        for (int word=0; word<board.words; word++) {
+            green += Long.bitCount(frogs[word]);
+        }
+        return green;
+    }
+
     /**
      * Returns a Collection of all possible moves that can be made from this Config
      * @return Collection<Configuration> all possible moves
@@ -81,26 +174,41 @@ public class HoppersConfig implements Configuration{
     @Override
     public Collection<Configuration> getNeighbors() {
         ArrayList<Configuration> neighbors = new ArrayList<>();
-        for (int r=0; r<rows; r++) { // for each row
-            for (int c=0; c<cols; c++) { // for each column in the row
-                if (grid[r][c] == 'G' || grid[r][c] == 'R') {
-                    neighbors.addAll(getMoves(r,c));
+        forEachNeighbor(neighbors::add);
+        return neighbors;
+    }
+
+    /**
+     * Hands every possible move that can be made from this Config to the visitor, without building any lists.
+     * Walks the frogs in row major order and tries each one's jumps from the jump table
+     * @param visitor receives each move, and can stop the rest from being made
+     * @return boolean true if every move was visited
+     */
+    @Override
+    public boolean forEachNeighbor(NeighborVisitor visitor) {
+        for (int word=0; word<board.words; word++) {
+            for (long frog = frogs[word] | frogs[board.words + word]; frog != 0; frog &= frog - 1) {
+                int cell = word*64 + Long.numberOfTrailingZeros(frog);
+                for (int jump=board.jumpStart[cell]; jump<board.jumpStart[cell+1]; jump++) {
+                    if (canJump(jump)
+                            && !visitor.visit(new HoppersConfig(this, cell, board.jumpOver[jump], board.jumpTo[jump]))) {
+                        return false;
+                    }
                 }
             }
         }
-        return neighbors;
+        return true;
     }
 
     @Override
     public String toString() {
         StringBuilder result = new StringBuilder();
-        for (int r=0; r<rows; r++) {
-            char[] row = grid[r];
-            for (int c=0; c<cols; c++) {
-                result.append(row[c]);
+        for (int r=0; r<board.rows; r++) {
+            for (int c=0; c<board.cols; c++) {
+                result.append(getCell(r, c));
                 result.append(' ');
             }
-            if (r<rows-1) { result.append(System.lineSeparator()); }
+            if (r<board.rows-1) { result.append(System.lineSeparator()); }
         }
         return result.toString();
     }
@@ -113,21 +221,21 @@ public class HoppersConfig implements Configuration{
         StringBuilder result = new StringBuilder(" ");
 
         result.append(" ");
-        for (int c=0; c<cols; ++c) {
+        for (int c=0; c<board.cols; ++c) {
             result.append(c).append(" ");
         }
 
         result.append(System.lineSeparator()).append("  ");
-        result.append(("-").repeat(Math.max(0, cols  * 2-1)));
+        result.append(("-").repeat(Math.max(0, board.cols  * 2-1)));
         result.append(System.lineSeparator());
 
-        for (int r=0; r<rows; ++r) {
+        for (int r=0; r<board.rows; ++r) {
             result.append(r).append('|');
-            for (int c = 0; c<cols; ++c) {
-                if (c != cols-1) {
-                    result.append(grid[r][c]).append(" ");
+            for (int c = 0; c<board.cols; ++c) {
+                if (c != board.cols-1) {
+                    result.append(getCell(r, c)).append(" ");
                 } else {
-                    result.append(grid[r][c]).append(System.lineSeparator());
+                    result.append(getCell(r, c)).append(System.lineSeparator());
                 }
             }
         }
@@ -138,14 +246,93 @@ public class HoppersConfig implements Configuration{
     @Override
     public boolean equals(Object o) {
         if (o instanceof HoppersConfig c) {
-            return Arrays.deepEquals(this.grid, c.grid);
+            return Arrays.equals(this.frogs, c.frogs);
         }
         return false;
     }
 
+    /**
+     * FNV-1a style hash of the frog masks, a long at a time
+     * @return int hash code
+     */
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(grid);
+        long hash = 0xCBF29CE484222325L;
+        for (long word : frogs) {
+            hash = (hash ^ word) * 0x100000001B3L;
+        }
+        return (int) (hash ^ hash >>> 32);
+    }
+
+    /**
+     * the number of longs in the green and red frog masks
+     * @return int
+     */
+    @Override
+    public int getEncodedWidth() {
+        return frogs.length;
+    }
+
+    /**
+     * copies the green and red frog masks
+     * @param words array to write the encoding into
+     * @param offset index of the first long to write
+     */
+    @Override
+    public void encode(long[] words, int offset) {
+        System.arraycopy(frogs, 0, words, offset, frogs.length);
+    }
+
+    /**
+     * copies a board's frog masks back out, the unplayable cells are the same for every board
+     * @param words array holding the encoding
+     * @param offset index of the first long of the encoding
+     * @return HoppersConfig that was encoded
+     */
+    @Override
+    public HoppersConfig decode(long[] words, int offset) {
+        return new HoppersConfig(board, Arrays.copyOfRange(words, offset, offset + frogs.length));
+    }
+
+    /**
+     * compares two rotations or reflections of this board playable cell by playable cell in row major order
+     * @param first source cells of a rotation or reflection, null for the identity
+     * @param second source cells of a rotation or reflection, null for the identity
+     * @return negative if the first comes before the second, 0 if they are the same, otherwise positive
+     */
+    private int compare(int[] first, int[] second) {
+        for (int cell=0; cell<board.cells; cell++) {
+            int diff = code(first == null ? cell : first[cell]) - code(second == null ? cell : second[cell]);
+            if (diff != 0) { return diff; }
+        }
+        return 0;
+    }
+
+    /**
+     * the rotation or reflection of this board that comes first cell by cell, out of the ones that keep the
+     * board's layout of playable cells
+     * @return HoppersConfig canonical board
+     */
+    @Override
+    public HoppersConfig getCanonical() {
+        int[] best = null;
+        for (int symmetry=1; symmetry<board.symmetryCells.length; symmetry++) {
+            int[] sources = board.symmetryCells[symmetry];
+            if (sources != null && compare(sources, best) < 0) {
+                best = sources;
+            }
+        }
+        if (best == null) {
+            return this;
+        }
+        long[] canonical = new long[frogs.length];
+        for (int cell=0; cell<best.length; cell++) {
+            int code = code(best[cell]);
+            if (code > 0) {
+                canonical[(code-1)*board.words + cell/64] |= 1L << cell;
+            }
+        }
+        return new HoppersConfig(board, canonical);
     }
 
     /**
@@ -155,7 +342,7 @@ public class HoppersConfig implements Configuration{
      * @return boolean
      */
     public boolean isFrog(int r, int c) {
-        return (grid[r][c] == 'G') || (grid[r][c] == 'R');
+        return code(board.cellIndex[r*board.cols + c]) > 0;
     }
 
     /**
@@ -163,7 +350,7 @@ public class HoppersConfig implements Configuration{
      * @return int
      */
     public int getRows() {
-        return rows;
+        return board.rows;
     }
 
     /**
@@ -171,7 +358,12 @@ public class HoppersConfig implements Configuration{
      * @return int
      */
     public int getCols() {
-        return cols;
+        return board.cols;
+    }
+
+    @Override
+    public int getBoardSize() {
+        return board.rows * board.cols;
     }
 
     /**
@@ -181,7 +373,8 @@ public class HoppersConfig implements Configuration{
      * @return char
      */
     public char getCell(int row, int column) {
-        return grid[row][column];
+        int cell = board.cellIndex[row*board.cols + column];
+        return cell < 0 ? '*' : CELLS.charAt(code(cell));
     }
 
     /**
@@ -190,79 +383,48 @@ public class HoppersConfig implements Configuration{
      */
     public Collection<Configuration> getMoves(int r, int c) {
         ArrayList<Configuration> moves = new ArrayList<>();
-        char NE = '*';
-        char SE = '*';
-        char NW = '*';
-        char SW = '*';
-        char N = '*';
-        char S = '*';
-        char E = '*';
-        char W = '*';
-        if (c > 1) {
-            if (c > 3) {
-                W = grid[r][c-4]; // square to jump to
-                char mid = grid[r][c-2]; // square you're jumping over
-                if (W == '.' && mid == 'G') {
-                    moves.add(new HoppersConfig(this, r, c, r, c-4));
-                }
-            }
-            if (r > 1) {
-                NW = grid[r-2][c-2];
-                char NWMID = grid[r-1][c-1];
-                if (NW == '.' && NWMID == 'G') {
-                    moves.add(new HoppersConfig(this, r, c, r-2, c-2));
-                }
-            }
-        }
-        if (r > 1) {
-            if (r > 3) {
-                N = grid[r-4][c];
-                char mid = grid[r-2][c];
-                if (N == '.' && mid == 'G') {
-                    moves.add(new HoppersConfig(this, r, c, r-4, c));
-                }
-            }
-            if (c < cols-2) {
-                NE = grid[r-2][c+2];
-                char NEMID = grid[r-1][c+1];
-                if (NE == '.' && NEMID == 'G') {
-                    moves.add(new HoppersConfig(this, r, c, r-2, c+2));
+        int cell = board.cellIndex[r*board.cols + c];
+        if (cell >= 0) {
+            for (int jump=board.jumpStart[cell]; jump<board.jumpStart[cell+1]; jump++) {
+                if (canJump(jump)) {
+                    moves.add(new HoppersConfig(this, cell, board.jumpOver[jump], board.jumpTo[jump]));
                 }
             }
         }
-        if (c < cols-2) {
-            if (c < cols-4) {
-                E = grid[r][c+4];
-                char mid = grid[r][c+2];
-                if (E == '.' && mid == 'G') {
-                    moves.add(new HoppersConfig(this, r, c, r, c+4));
-                }
-            }
-            if (r < rows-2) {
-                SE = grid[r+2][c+2];
-                char SEMID = grid[r+1][c+1];
-                if (SE == '.' && SEMID == 'G') {
-                    moves.add(new HoppersConfig(this, r, c, r+2, c+2));
-                }
-            }
-        }
-        if (r < rows-2) {
-            if (r < rows-4) {
-                S = grid[r+4][c];
-                char mid = grid[r+2][c];
-                if (S == '.' && mid == 'G') {
-                    moves.add(new HoppersConfig(this, r, c, r+4, c));
-                }
-            }
-            if (c > 1) {
-                SW = grid[r+2][c-2];
-                char SWMID = grid[r+1][c-1];
-                if (SW == '.' && SWMID == 'G') {
-                    moves.add(new HoppersConfig(this, r, c, r+2, c-2));
+        return moves;
+    }
+
+    /**
+     * Returns the ids of all possible moves from this Config, in the same order as getNeighbors(). A move id is
+     * the jump's index in the jump table
+     * @return int[] move ids
+     */
+    @Override
+    public int[] getMoveIds() {
+        int[] ids = new int[8];
+        int count = 0;
+        for (int word=0; word<board.words; word++) {
+            for (long frog = frogs[word] | frogs[board.words + word]; frog != 0; frog &= frog - 1) {
+                int cell = word*64 + Long.numberOfTrailingZeros(frog);
+                for (int jump=board.jumpStart[cell]; jump<board.jumpStart[cell+1]; jump++) {
+                    if (canJump(jump)) {
+                        if (count == ids.length) { ids = Arrays.copyOf(ids, count * 2); }
+                        ids[count++] = jump;
+                    }
                 }
             }
         }
-        return moves;
+        return Arrays.copyOf(ids, count);
+    }
+
+    /**
+     * makes the jump with the given move id
+     * @param move id from getMoveIds()
+     * @return HoppersConfig after the jump
+     */
+    @Override
+    public HoppersConfig applyMove(int move) {
+        return new HoppersConfig(this, board.jumpFrom[move], board.jumpOver[move], board.jumpTo[move]);
     }
 
 }
@@ -1,12 +1,15 @@
 package puzzles.hoppers.model;
 
+import puzzles.common.Hinter;
 import puzzles.common.Observer;
 import puzzles.common.solver.Configuration;
-import puzzles.common.solver.Solver;
+import puzzles.common.solver.SolverMetrics;
 
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
 
 /**
  * Stores data needed to solve a Hoppers puzzle with a UI
@@ -14,6 +17,9 @@ import java.util.List;
  * @author Nathan Klein nek7125@rit.edu
  */
 public class HoppersModel {
+    /** how long a hint can take by default, in milliseconds */
+    public static final long DEFAULT_HINT_TIME_LIMIT = Hinter.DEFAULT_TIME_LIMIT;
+
     /** the collection of observers of this model */
     private final List<Observer<HoppersModel, String>> observers = new LinkedList<>();
 
@@ -24,6 +30,24 @@ public class HoppersModel {
     private int curRow;
     private int curCol;
 
+    /** works out hints in the background */
+    private final Hinter<HoppersModel> hinter = new Hinter<>(this, "hoppers-hint", new Hinter.Listener() {
+        @Override
+        public void hintFound(Configuration next) {
+            deliverHint(next);
+        }
+
+        @Override
+        public void hintGaveUp() {
+            alertObservers("Hint took too long, gave up");
+        }
+
+        @Override
+        public void databaseBuilt(int size) {
+            alertObservers("Solved all " + size + " reachable states");
+        }
+    });
+
     /**
      * The view calls this to add itself as an observer.
      *
@@ -33,6 +57,16 @@ public class HoppersModel {
         this.observers.add(observer);
     }
 
+    /**
+     * The view calls this to be told how a hint's search is going while it runs, at most every
+     * SolverListener.PROGRESS_INTERVAL milliseconds, from the background thread.
+     *
+     * @param observer the view
+     */
+    public void addProgressObserver(Observer<HoppersModel, SolverMetrics> observer) {
+        hinter.addProgressObserver(observer);
+    }
+
     /**
      * The model's state has changed (the counter), so inform the view via
      * the update method
@@ -56,18 +90,39 @@ public class HoppersModel {
     }
 
     /**
-     * attempts to solve the puzzle from the current state, updating the current state to the next step in the solution
-     * if there is one, otherwise, alerts the observers that the puzzle is insolvable.
+     * sets how long a hint can take before it gives up
+     * @param millis milliseconds, 0 for no limit
      */
-    public void hint() {
+    public synchronized void setHintTimeLimit(long millis) {
+        hinter.setTimeLimit(millis);
+    }
+
+    /**
+     * starts solving the puzzle from the current state in the background. When it finishes, the current state is
+     * updated to the next step in the solution if there is one, otherwise, the observers are alerted that the puzzle
+     * is insolvable. Observers are alerted from the background thread. Progress observers are told how the search is
+     * going while it runs. A hint still in progress is cancelled by another hint, a selection, a reset or a load.
+     * States on a path found by an earlier hint get their hint straight away, without solving again, and so does
+     * every state once buildDatabase has finished. If the puzzles.cache.dir system property is set, the solution
+     * from the starting state is kept on disk there, so it is read back rather than solved after a restart.
+     * @return Future that completes once the hint has been delivered or given up on
+     */
+    public synchronized Future<?> hint() {
         if (currentConfig.isSolution()) {
+            hinter.cancel();
             alertObservers("Already solved!");
-            return;
+            return CompletableFuture.completedFuture(null);
         }
-        Solver solver = new Solver();
-        LinkedList<Configuration> solution = solver.solve(currentConfig);
-        if(solution.size() > 0){
-            currentConfig = (HoppersConfig) solution.get(1);
+        return hinter.hint(currentConfig, currentConfig == originalConfig);
+    }
+
+    /**
+     * moves to the next step in the solution, alerting the observers
+     * @param next the next step, null if the puzzle is insolvable
+     */
+    private void deliverHint(Configuration next) {
+        if(next != null){
+            currentConfig = (HoppersConfig) next;
             if(currentConfig.isSolution()){
                 alertObservers("woohoo you won");
             } else {
@@ -78,14 +133,35 @@ public class HoppersModel {
         }
     }
 
+    /**
+     * starts labelling every state that can be reached in the loaded puzzle with its distance to the solution, in
+     * the background. Once it is built, every hint for the puzzle is a lookup instead of a search. Observers are
+     * told from the background thread when it is done. Loading another puzzle cancels it and throws it away.
+     * @return Future that completes once the database has been built or given up on
+     */
+    public synchronized Future<?> buildDatabase() {
+        return hinter.buildDatabase(originalConfig);
+    }
+
+    /**
+     * stops the hint in progress, if there is one, alerting the observers
+     */
+    public synchronized void stopHint() {
+        if (hinter.cancel()) {
+            alertObservers("Hint cancelled");
+        }
+    }
+
     /**
      * loads a new puzzle file, alerts observers
      * @param filename file to load and read from
      */
-    public void load(String filename) {
+    public synchronized void load(String filename) {
+        hinter.cancel();
         try {
             currentConfig = new HoppersConfig(filename);
             originalConfig = currentConfig;
+            hinter.clear();
             this.curRow = -1;
             this.curCol = -1;
             alertObservers("Loaded: " + filename);
@@ -99,7 +175,8 @@ public class HoppersModel {
      * @param row int selected row
      * @param col int selected column
      */
-    public void select(int row, int col) {
+    public synchronized void select(int row, int col) {
+        hinter.cancel();
         if (row>=currentConfig.getRows() || col>=currentConfig.getCols() || row<0 || col<0) {
             alertObservers("Selection out of bounds!");
             return;
@@ -138,7 +215,8 @@ public class HoppersModel {
     /**
      * resets the puzzle to the original unsolved state
      */
-    public void reset() {
+    public synchronized void reset() {
+        hinter.cancel();
         currentConfig = originalConfig;
         curRow = -1;
         curCol = -1;
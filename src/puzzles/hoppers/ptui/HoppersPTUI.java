@@ -5,6 +5,8 @@ import puzzles.hoppers.model.HoppersModel;
 
 import java.io.IOException;
 import java.util.Scanner;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Class to create a Plain Text UI using HoppersConfig and HoppersModel
@@ -33,6 +35,7 @@ public class HoppersPTUI implements Observer<HoppersModel, String> {
      * displays valid commands
      */
     private void displayHelp() {
+        System.out.println( "d(atabase)          -- solve every state, for instant hints" );
         System.out.println( "h(int)              -- hint next move" );
         System.out.println( "l(oad) filename     -- load new puzzle file" );
         System.out.println( "s(elect) r c        -- select cell at r, c" );
@@ -53,7 +56,19 @@ public class HoppersPTUI implements Observer<HoppersModel, String> {
                 if (words[0].startsWith("q")) {         // quit command
                     break;
                 } else if (words[0].startsWith("h")) {  // hint command
-                    model.hint();
+                    try {
+                        model.hint().get();  // wait, so the hint prints before the next prompt
+                    } catch (InterruptedException | ExecutionException e) {
+                        System.out.println("Hint failed: " + e.getMessage());
+                    }
+                } else if (words[0].startsWith("d")) {  // database command
+                    try {
+                        model.buildDatabase().get();
+                    } catch (InterruptedException | ExecutionException e) {
+                        System.out.println("Solving every state failed: " + e.getMessage());
+                    } catch (CancellationException e) {  // the puzzle was reset or another one loaded
+                        System.out.println("Solving every state was cancelled");
+                    }
                 } else if (words[0].startsWith("r")) {  // reset command
                     model.reset();
                 } else if (words[0].startsWith("s")) {  // select command
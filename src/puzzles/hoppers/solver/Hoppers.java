@@ -1,36 +1,78 @@
 package puzzles.hoppers.solver;
 
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.PrometheusExporter;
+import puzzles.common.solver.SearchMode;
+import puzzles.common.solver.SolutionStore;
 import puzzles.common.solver.Solver;
 import puzzles.hoppers.model.HoppersConfig;
 
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
 import java.util.LinkedList;
 
 public class Hoppers {
     public static void main(String[] args) {
-        if (args.length != 1) {
-            System.out.println("Usage: java Hoppers filename");
+        if (args.length < 1 || args.length > 2) {
+            System.out.println("Usage: java Hoppers filename [mode]");
         } else {
-            String file = args[0];
-            System.out.println("File: " + file);
-            Solver solver = new Solver();
+            Solver solver = args.length > 1 ? new Solver(SearchMode.valueOf(args[1].toUpperCase())) : new Solver();
             try {
-                Configuration initial = new HoppersConfig(file);
-                System.out.println(initial);
-                LinkedList<Configuration> path = solver.solve(initial);
-                System.out.println("Total configs: " + solver.getNumConfigs());
-                System.out.println("Unique configs: " + solver.getUniqueConfigs());
-                if (path.size() > 0) {
-                    for (int i=0; i<path.size(); i++) {
-                        System.out.println("Step: " + i);
-                        System.out.println(path.get(i).toString() + "\n");
-                    }
-                } else {
-                    System.out.println("No Solution");
-                }
+                solve(args[0], solver, System.out);
             } catch (Exception e) {
                 e.printStackTrace();
             }
         }
     }
+
+    /**
+     * solves a puzzle file and prints the starting board, the search counts and every step of the solution. A
+     * board solved before with the same mode is read back from the SolutionStore instead of solved again, if the
+     * puzzles.cache.dir system property names one, and is labelled as cached. Setting the puzzles.metrics.file
+     * system property exports the search's metrics to that file as it goes
+     * @param file puzzle file to solve
+     * @param solver solver to solve it with
+     * @param out where to print the solution
+     * @return the solution and its search counts
+     * @throws IOException if the file can't be read
+     */
+    public static SolutionStore.Entry solve(String file, Solver solver, PrintStream out) throws IOException {
+        out.println("File: " + file);
+        solver.setHeuristic(HoppersConfig.HEURISTIC);
+        String metrics = System.getProperty(PrometheusExporter.FILE_PROPERTY);
+        if (metrics != null) {
+            solver.addListener(new PrometheusExporter(Path.of(metrics), file));
+        }
+        Configuration initial = new HoppersConfig(file);
+        out.println(initial);
+        SolutionStore store = SolutionStore.getDefault();
+        SolutionStore.Entry entry = store != null ? store.load(initial, solver.getMode()) : null;
+        if (entry == null) {
+            LinkedList<Configuration> solution = solver.solve(initial);
+            entry = new SolutionStore.Entry(solution, solver.getNumConfigs(), solver.getUniqueConfigs(), false);
+        }
+        if (store != null && !entry.cached()) {
+            try {
+                store.save(initial, solver.getMode(), entry.path(), entry.numConfigs(), entry.uniqueConfigs());
+            } catch (IOException e) {
+                System.err.println("Could not cache the solution: " + e.getMessage());
+            }
+        }
+        LinkedList<Configuration> path = entry.path();
+        if (entry.cached()) {
+            out.println("Cached: read back from " + System.getProperty(SolutionStore.DIRECTORY_PROPERTY));
+        }
+        out.println("Total configs: " + entry.numConfigs());
+        out.println("Unique configs: " + entry.uniqueConfigs());
+        if (path.size() > 0) {
+            for (int i=0; i<path.size(); i++) {
+                out.println("Step: " + i);
+                out.println(path.get(i).toString() + "\n");
+            }
+        } else {
+            out.println("No Solution");
+        }
+        return entry;
+    }
 }
@@ -1,6 +1,7 @@
 package puzzles.strings;
 
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.SearchMode;
 import puzzles.common.solver.Solver;
 
 import java.util.LinkedList;
@@ -8,12 +9,13 @@ import java.util.LinkedList;
 public class Strings {
     public static void main(String[] args) {
         if (args.length < 2) {
-            System.out.println(("Usage: java Strings start finish"));
+            System.out.println(("Usage: java Strings start finish [mode]"));
         } else {
             String start = args[0];
             String goal = args[1];
             System.out.println("Start: " + start + ", End: " + goal);
-            Solver solver = new Solver();
+            Solver solver = args.length > 2 ? new Solver(SearchMode.valueOf(args[2].toUpperCase())) : new Solver();
+            solver.setHeuristic(StringsConfig.HEURISTIC);
             LinkedList<Configuration> solution = solver.solve(new StringsConfig(start, goal));
             System.out.println("Total configs: " + solver.getNumConfigs());
             System.out.println("Unique configs: " + solver.getUniqueConfigs());
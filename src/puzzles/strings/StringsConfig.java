@@ -1,76 +1,290 @@
 package puzzles.strings;
 
+import puzzles.clock.ClockConfig;
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.Decomposable;
+import puzzles.common.solver.Encodable;
+import puzzles.common.solver.Heuristic;
+import puzzles.common.solver.NeighborVisitor;
+import puzzles.common.solver.Reversible;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 
-public class StringsConfig implements Configuration {
+public class StringsConfig implements Reversible, Encodable, Decomposable {
+    /** each move changes one letter by one, so the letter distances add up to the exact number of moves left */
+    public static final Heuristic HEURISTIC = config -> ((StringsConfig) config).getDistance();
 
-    private final String current;
-    private static String goal;
+    /** the first long of the packed word */
+    private final long first;
+    /** the rest of the packed word, null if it fits in one long. Never changed, so words can share it */
+    private final long[] rest;
+    /** how words are packed and the goal, shared by every configuration of the puzzle */
+    private final StringsLayout layout;
 
     /**
      * configuration for a word in the string puzzle
      * @param start - String, the start, or current word in the configuration
-     * @param finish - static String, the goal word
+     * @param finish - String, the goal word
      */
     public StringsConfig(String start, String finish) {
-        this.current = start;
-        goal = finish;
+        this.layout = new StringsLayout(start, finish);
+        long[] packed = layout.pack(start);
+        this.first = packed[0];
+        this.rest = StringsLayout.rest(packed);
     }
 
-    public StringsConfig(String current) {
-        this.current = current;
+    /**
+     * another word of the same puzzle, already packed
+     * @param layout how the puzzle's words are packed
+     * @param first first long of the packed word
+     * @param rest the rest of the packed word, null if it fits in one long
+     */
+    private StringsConfig(StringsLayout layout, long first, long[] rest) {
+        this.layout = layout;
+        this.first = first;
+        this.rest = rest;
     }
 
     @Override
     public boolean isSolution() {
-        return current.equals(goal);
+        return first == layout.goalFirst && layout.goalReachable && Arrays.equals(rest, layout.goalRest);
+    }
+
+    @Override
+    public int getBoardSize() {
+        return layout.length;
+    }
+
+    /**
+     * the long holding a character of the word
+     * @param index index of the long, 0 for first
+     * @return long
+     */
+    private long word(int index) {
+        return index == 0 ? first : rest[index - 1];
+    }
+
+    /**
+     * the word with one of its longs replaced
+     * @param index index of the long, 0 for first
+     * @param word the new long
+     * @return StringsConfig - the changed word, sharing the longs that didn't change
+     */
+    private StringsConfig withWord(int index, long word) {
+        if (index == 0) {
+            return new StringsConfig(layout, word, rest);
+        }
+        long[] changed = rest.clone();
+        changed[index - 1] = word;
+        return new StringsConfig(layout, first, changed);
+    }
+
+    /**
+     * a character of the word
+     * @param i position of the character
+     * @return char
+     */
+    private char charAt(int i) {
+        return layout.character(layout.digitAt(word(i / layout.digits), i % layout.digits));
+    }
+
+    /**
+     * the sum over every position of the changes from the current character to the goal letter, see
+     * charDistance
+     * @return int - character changes to the goal, 0 if the goal can't be reached
+     */
+    public int getDistance() {
+        if (!layout.goalReachable || !layout.goalLetters) {
+            return 0;
+        }
+        int total = 0;
+        for (int i = 0; i < layout.length; i++) {
+            total += charDistance(charAt(i), layout.goal.charAt(i));
+        }
+        return total;
+    }
+
+    /**
+     * the changes from a character to a goal letter. Letters go whichever way around the alphabet is shorter.
+     * Any other character only moves in a straight line, with no wrapping around, until it reaches A or Z, and
+     * then goes around the alphabet from there
+     * @param c current character
+     * @param goal goal letter A-Z
+     * @return int - exact number of changes, never negative
+     */
+    private static int charDistance(char c, char goal) {
+        if (c >= 'A' && c <= 'Z') {
+            return letterDistance(c, goal);
+        }
+        int up = (('A' - c) & 0xFFFF) + letterDistance('A', goal);
+        int down = ((c - 'Z') & 0xFFFF) + letterDistance('Z', goal);
+        return Math.min(up, down);
+    }
+
+    /**
+     * the changes between two letters, going whichever way around the alphabet is shorter
+     * @param from letter A-Z
+     * @param to letter A-Z
+     * @return int - from 0 to 13
+     */
+    private static int letterDistance(char from, char to) {
+        int distance = Math.abs(from - to);
+        return Math.min(distance, 26 - distance);
     }
 
     @Override
     public Collection<Configuration> getNeighbors() {
-        ArrayList<Configuration> neighbors = new ArrayList<>();
-        for (int i = 0; i < current.length(); i++) {
-            char cChar = current.charAt(i); //current
-            char nChar = current.charAt(i); //new
-            if (nChar == 'Z') {
-                nChar = 'A';
-            } else {
-                nChar += 1;
+        ArrayList<Configuration> neighbors = new ArrayList<>(layout.length * 2);
+        forEachNeighbor(neighbors::add);
+        return neighbors;
+    }
+
+    /**
+     * hands the visitor every word one letter change away, each character turned up then down, by adding to or
+     * taking from the character's digit in its long
+     * @param visitor receives each word, and can stop the rest from being made
+     * @return true if every word was visited, false if the visitor stopped early
+     */
+    @Override
+    public boolean forEachNeighbor(NeighborVisitor visitor) {
+        for (int i = 0; i < layout.length; i++) {
+            int index = i / layout.digits;
+            int place = i % layout.digits;
+            long word = word(index);
+            long value = layout.place(place);
+            int digit = layout.digitAt(word, place);
+            char c = layout.character(digit);
+            char up = c == 'Z' ? 'A' : (char) (c + 1);
+            if (!visitor.visit(withWord(index, word + (layout.digit(up) - digit) * value))) {
+                return false;
             }
-            StringsConfig plus = new StringsConfig(current.substring(0, i) + nChar +
-                    current.substring(i + 1));
-            neighbors.add(plus);
-
-            if (cChar == 'A') {
-                cChar = 'Z';
-            } else {
-                cChar -= 1;
+            char down = c == 'A' ? 'Z' : (char) (c - 1);
+            if (!visitor.visit(withWord(index, word + (layout.digit(down) - digit) * value))) {
+                return false;
             }
-            StringsConfig minus = new StringsConfig(current.substring(0, i) + cChar +
-                    current.substring(i + 1));
-            neighbors.add(minus);
         }
-        return neighbors;
+        return true;
+    }
+
+    /**
+     * the goal word, or null if it isn't a word of this puzzle, because it's a different length or has
+     * characters that can't be reached from the letters A-Z
+     * @return Configuration - the goal word, packed the same way as this word
+     */
+    @Override
+    public Configuration getGoal() {
+        return layout.goalLetters && layout.goalReachable
+                ? new StringsConfig(layout, layout.goalFirst, layout.goalRest) : null;
+    }
+
+    /**
+     * changing a letter is reversible, so the predecessors are the neighbors
+     * @return Collection<Configuration> - every word one letter change away
+     */
+    @Override
+    public Collection<Configuration> getPredecessors() {
+        return getNeighbors();
+    }
+
+    /**
+     * each letter turns around the alphabet on its own, so each position is a 26 hour clock going from its current
+     * letter to its goal letter, A being 1 o'clock
+     * @return List<Configuration> - a ClockConfig per position, or null if the words are different lengths or
+     * aren't all letters A-Z, where moves don't go around the alphabet
+     */
+    @Override
+    public List<Configuration> getComponents() {
+        if (!layout.letters || !layout.goalReachable) {
+            return null;
+        }
+        List<Configuration> components = new ArrayList<>(layout.length);
+        for (int i = 0; i < layout.length; i++) {
+            components.add(new ClockConfig(26, charAt(i) - 'A' + 1, layout.goal.charAt(i) - 'A' + 1));
+        }
+        return components;
+    }
+
+    /**
+     * the word with one letter set to the time on its clock
+     * @param index position of the letter
+     * @param component ClockConfig of the letter
+     * @return Configuration - the word with the letter changed
+     */
+    @Override
+    public Configuration withComponent(int index, Configuration component) {
+        int word = index / layout.digits;
+        int place = index % layout.digits;
+        long packed = word(word);
+        int digit = ((ClockConfig) component).getTime() - 1;
+        return withWord(word, packed + (digit - layout.digitAt(packed, place)) * layout.place(place));
+    }
+
+    /**
+     * the goal word, which isn't printed with the word
+     * @return String
+     */
+    @Override
+    public String describePuzzle() {
+        return "to " + layout.goal;
+    }
+
+    /**
+     * the number of longs the word is packed into
+     * @return int
+     */
+    @Override
+    public int getEncodedWidth() {
+        return layout.words;
+    }
+
+    /**
+     * copies the packed word
+     * @param words array to write the encoding into
+     * @param offset index of the first long to write
+     */
+    @Override
+    public void encode(long[] words, int offset) {
+        words[offset] = first;
+        if (rest != null) {
+            System.arraycopy(rest, 0, words, offset + 1, rest.length);
+        }
+    }
+
+    /**
+     * unpacks a word of the same puzzle as this one
+     * @param words array holding the encoding
+     * @param offset index of the first long of the encoding
+     * @return Configuration that was encoded
+     */
+    @Override
+    public Configuration decode(long[] words, int offset) {
+        long[] decoded = rest == null ? null : Arrays.copyOfRange(words, offset + 1, offset + layout.words);
+        return new StringsConfig(layout, words[offset], decoded);
     }
 
     @Override
     public boolean equals(Object other) {
         if (other instanceof StringsConfig c) {
-            return this.current.equals(c.current);
+            return this.first == c.first && Arrays.equals(this.rest, c.rest)
+                    && this.layout.letters == c.layout.letters && this.layout.length == c.layout.length;
         }
         return false;
     }
 
     @Override
     public int hashCode() {
-        return current.hashCode();
+        return 31 * Long.hashCode(first) + Arrays.hashCode(rest);
     }
 
     @Override
     public String toString() {
-        return current;
+        char[] word = new char[layout.length];
+        for (int i = 0; i < word.length; i++) {
+            word[i] = charAt(i);
+        }
+        return new String(word);
     }
 }
@@ -0,0 +1,140 @@
+package puzzles.strings;
+
+/**
+ * How the words of a Strings puzzle are packed into longs, which is the same for every word reached while solving
+ * it, along with the packed goal. Words of only the letters A-Z never leave them, since Z goes around to A, so
+ * they are packed as base 26 digits, 13 letters to a long. Any other character can move anywhere in the 16 bit
+ * char range, so words with one are packed 4 characters to a long instead. Character i is digit i % digits of
+ * long i / digits, the first long being kept apart from the rest so short words don't need an array.
+ */
+final class StringsLayout {
+    /** letters in a long when packed base 26, 26^13 is the largest power of 26 a long holds */
+    private static final int LETTER_DIGITS = 13;
+    /** characters in a long when packed 16 bits each */
+    private static final int CHAR_DIGITS = 4;
+    /** 26 to the power of each letter's place in its long */
+    private static final long[] POWERS = new long[LETTER_DIGITS];
+
+    static {
+        POWERS[0] = 1;
+        for (int i = 1; i < LETTER_DIGITS; i++) {
+            POWERS[i] = POWERS[i - 1] * 26;
+        }
+    }
+
+    /** whether every word is only the letters A-Z, packed base 26 */
+    final boolean letters;
+    /** characters in every word */
+    final int length;
+    /** characters packed into each long */
+    final int digits;
+    /** longs needed for a word, at least 1 */
+    final int words;
+    /** the goal word */
+    final String goal;
+    /** whether the goal is a word of the puzzle at all, which it isn't if it's a different length or has a
+     * character a lettered word can't reach */
+    final boolean goalReachable;
+    /** whether the goal is only the letters A-Z */
+    final boolean goalLetters;
+    /** first long of the packed goal, only meaningful if it's reachable */
+    final long goalFirst;
+    /** the rest of the packed goal, null if it fits in one long or isn't reachable */
+    final long[] goalRest;
+
+    /**
+     * works out how the words of the puzzle are packed and packs the goal
+     * @param start starting word
+     * @param goal goal word
+     */
+    StringsLayout(String start, String goal) {
+        this.letters = isLetters(start);
+        this.length = start.length();
+        this.digits = letters ? LETTER_DIGITS : CHAR_DIGITS;
+        this.words = Math.max(1, (length + digits - 1) / digits);
+        this.goal = goal;
+        this.goalLetters = isLetters(goal);
+        this.goalReachable = goal.length() == length && (goalLetters || !letters);
+        long[] packed = goalReachable ? pack(goal) : new long[words];
+        this.goalFirst = packed[0];
+        this.goalRest = rest(packed);
+    }
+
+    /**
+     * checks if every character of a word is a letter A-Z
+     * @param word word to check
+     * @return boolean
+     */
+    private static boolean isLetters(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (word.charAt(i) < 'A' || word.charAt(i) > 'Z') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * packs a word of the puzzle
+     * @param word word of this puzzle's length, only letters A-Z if the puzzle's words are
+     * @return long[] all the longs of the packed word
+     */
+    long[] pack(String word) {
+        long[] packed = new long[words];
+        for (int i = 0; i < length; i++) {
+            packed[i / digits] += (digit(word.charAt(i)) & 0xFFFFL) * place(i % digits);
+        }
+        return packed;
+    }
+
+    /**
+     * splits the longs after the first off a packed word
+     * @param packed all the longs of a packed word
+     * @return long[] the longs after the first, null if there is only one
+     */
+    static long[] rest(long[] packed) {
+        if (packed.length == 1) {
+            return null;
+        }
+        long[] rest = new long[packed.length - 1];
+        System.arraycopy(packed, 1, rest, 0, rest.length);
+        return rest;
+    }
+
+    /**
+     * the value one of a character's digit is worth in its long
+     * @param place place of the character in its long, from 0 to digits - 1
+     * @return long
+     */
+    long place(int place) {
+        return letters ? POWERS[place] : 1L << (place * 16);
+    }
+
+    /**
+     * reads one digit out of a long
+     * @param word long holding the digit
+     * @param place place of the digit in the long
+     * @return int - the digit, from 0 to 25 for letters
+     */
+    int digitAt(long word, int place) {
+        return letters ? (int) (word / POWERS[place] % 26) : (int) (word >>> (place * 16)) & 0xFFFF;
+    }
+
+    /**
+     * the digit a character is packed as
+     * @param c character
+     * @return int
+     */
+    int digit(char c) {
+        return letters ? c - 'A' : c;
+    }
+
+    /**
+     * the character a digit stands for
+     * @param digit digit
+     * @return char
+     */
+    char character(int digit) {
+        return (char) (letters ? 'A' + digit : digit);
+    }
+}